@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
@@ -39,8 +40,15 @@ public class LiveVariableAnalysis extends AbstractDataflowAnalysis<Stmt, SetFact
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether use {@link BitSetFact} (keyed by variable indexes)
+     * to represent the data-flow facts.
+     */
+    private final boolean useBitSet;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        useBitSet = "bitset".equals(getOptions().getString("fact"));
     }
 
     @Override
@@ -51,13 +59,17 @@ public class LiveVariableAnalysis extends AbstractDataflowAnalysis<Stmt, SetFact
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        return new SetFact<>();
+        return newFact();
     }
 
     @Override
     public SetFact<Var> newInitialFact() {
         // TODO - finish me
-        return new SetFact<>();
+        return newFact();
+    }
+
+    private SetFact<Var> newFact() {
+        return useBitSet ? new BitSetFact<>() : new SetFact<>();
     }
 
     @Override
@@ -82,6 +94,6 @@ public class LiveVariableAnalysis extends AbstractDataflowAnalysis<Stmt, SetFact
                 in.add((Var) uses);
             }
         }
-        return in.equals(preIn);
+        return !in.equals(preIn);
     }
 }
@@ -27,6 +27,12 @@ import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.DepthFirstOrder;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
 
 class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
@@ -42,21 +48,32 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
-        initializeBackward(cfg, result);
-        boolean flag = true;
-        while (flag) {
-            flag = false;
-            for (Node node : cfg) {
+        // Sweep the nodes in post-order of the CFG, so that the successors
+        // of a node are usually processed before it. A node is processed
+        // only if it has not been processed yet or the IN fact of any of
+        // its successors changed, and the iteration stops once no node
+        // is dirty. Thus, on acyclic CFGs, this finishes in one sweep.
+        List<Node> nodes = new DepthFirstOrder<>(cfg, cfg.getEntry()).getPostOrder();
+        Map<Node, Integer> positions = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            positions.put(nodes.get(i), i);
+        }
+        BitSet dirty = new BitSet(nodes.size());
+        dirty.set(0, nodes.size());
+        while (!dirty.isEmpty()) {
+            for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+                dirty.clear(i);
+                Node node = nodes.get(i);
                 Fact in = result.getInFact(node);
                 Fact out = result.getOutFact(node);
                 for (Node succ : cfg.getSuccsOf(node)) {
                     analysis.meetInto(result.getInFact(succ), out);
                 }
-                result.setOutFact(node, out);
-                if (!analysis.transferNode(node, in, out)) {
-                    flag = true;
+                if (analysis.transferNode(node, in, out)) {
+                    for (Node pred : cfg.getPredsOf(node)) {
+                        dirty.set(positions.get(pred));
+                    }
                 }
-                result.setInFact(node, in);
             }
         }
     }
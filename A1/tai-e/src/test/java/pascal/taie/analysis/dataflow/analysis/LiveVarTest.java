@@ -32,6 +32,11 @@ public class LiveVarTest {
                 LiveVariableAnalysis.ID, "strongly:false");
     }
 
+    void testLVBitSet(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false;fact:bitset");
+    }
+
     @Test
     public void testAssign() {
         testLV("Assign");
@@ -61,4 +66,14 @@ public class LiveVarTest {
     public void Reference() {
         testLV("Reference");
     }
+
+    @Test
+    public void testBranchLoopBitSet() {
+        testLVBitSet("BranchLoop");
+    }
+
+    @Test
+    public void testFibonacciBitSet() {
+        testLVBitSet("Fibonacci");
+    }
 }
@@ -25,6 +25,8 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.util.AnalysisException;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -48,6 +50,25 @@ public abstract class Solver<Node, Fact> {
         return new WorkListSolver<>(analysis);
     }
 
+    /**
+     * Static factory method to create a new solver for given analysis
+     * according to the given options. Supported options:
+     * <ul>
+     *     <li>solver: worklist (default) | wto</li>
+     * </ul>
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, AnalysisOptions options) {
+        String solver = options.getString("solver");
+        if (solver == null || solver.equals("worklist")) {
+            return new WorkListSolver<>(analysis);
+        } else if (solver.equals("wto")) {
+            return new WTOSolver<>(analysis);
+        } else {
+            throw new AnalysisException("Unknown solver: " + solver);
+        }
+    }
+
     /**
      * Starts this solver on the given CFG.
      *
@@ -22,6 +22,8 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
@@ -32,6 +34,8 @@ import java.util.Queue;
 
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(WorkListSolver.class);
+
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
         super(analysis);
     }
@@ -40,8 +44,10 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
         Queue<Node> workList = new LinkedList<>(cfg.getNodes());
+        int visits = 0;
         while (!workList.isEmpty()) {
             Node node = workList.poll();
+            ++visits;
             Fact in = result.getInFact(node);
             Fact out = result.getOutFact(node);
             for (Node pred : cfg.getPredsOf(node)) {
@@ -55,6 +61,8 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
                 }
             }
         }
+        logger.debug("Work-list solver visited {} nodes ({} nodes in CFG) for {}",
+                visits, cfg.getNumberOfNodes(), cfg.getMethod());
     }
 
     @Override
@@ -0,0 +1,98 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes depth-first orders of a graph. The traversal starts from
+ * the given root, and then from the nodes that are unreachable from
+ * the root (in iteration order of the graph), so that the resulting
+ * orders always contain all nodes of the graph.
+ *
+ * @param <N> type of nodes
+ */
+public class DepthFirstOrder<N> {
+
+    private final List<N> postOrder;
+
+    public DepthFirstOrder(Graph<N> graph, N root) {
+        postOrder = new ArrayList<>(graph.getNumberOfNodes());
+        Set<N> visited = Sets.newSet(graph.getNumberOfNodes());
+        visit(graph, root, visited);
+        for (N node : graph) {
+            if (!visited.contains(node)) {
+                visit(graph, node, visited);
+            }
+        }
+    }
+
+    /**
+     * Iterative depth-first traversal, which avoids stack overflow
+     * on huge graphs.
+     */
+    private void visit(Graph<N> graph, N start, Set<N> visited) {
+        Deque<N> nodes = new ArrayDeque<>();
+        Deque<Iterator<N>> succs = new ArrayDeque<>();
+        visited.add(start);
+        nodes.push(start);
+        succs.push(graph.getSuccsOf(start).iterator());
+        while (!nodes.isEmpty()) {
+            Iterator<N> it = succs.peek();
+            if (it.hasNext()) {
+                N succ = it.next();
+                if (visited.add(succ)) {
+                    nodes.push(succ);
+                    succs.push(graph.getSuccsOf(succ).iterator());
+                }
+            } else {
+                postOrder.add(nodes.pop());
+                succs.pop();
+            }
+        }
+    }
+
+    /**
+     * @return the nodes in post-order.
+     */
+    public List<N> getPostOrder() {
+        return Collections.unmodifiableList(postOrder);
+    }
+
+    /**
+     * @return the nodes in reverse post-order.
+     */
+    public List<N> getReversePostOrder() {
+        List<N> reversePostOrder = new ArrayList<>(postOrder);
+        Collections.reverse(reversePostOrder);
+        return reversePostOrder;
+    }
+}
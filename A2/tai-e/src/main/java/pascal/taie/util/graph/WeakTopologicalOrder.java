@@ -0,0 +1,216 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes a weak topological ordering (WTO) of a graph, as described in
+ * F. Bourdoncle, "Efficient chaotic iteration strategies with widenings".
+ * <p>
+ * A WTO is a sequence of elements, each of which is either a single node
+ * or a component, i.e., a head node followed by a nested WTO of the other
+ * nodes of the component. Every cycle of the graph passes through the head
+ * of some component which contains the cycle, thus iterating the
+ * components from the innermost to the outermost, until their heads
+ * are stable, reaches the fixed point.
+ * <p>
+ * The components are computed by recursively decomposing the strongly
+ * connected components of the graph: the head of each non-trivial SCC
+ * is its first node in reverse post-order from the root (i.e., the loop
+ * header for reducible graphs), and the rest of the SCC is decomposed
+ * again after removing the head.
+ *
+ * @param <N> type of nodes
+ */
+public class WeakTopologicalOrder<N> {
+
+    private final Graph<N> graph;
+
+    /**
+     * Positions of the nodes in reverse post-order from the root.
+     */
+    private final Map<N, Integer> positions;
+
+    private final List<Element<N>> elements;
+
+    public WeakTopologicalOrder(Graph<N> graph, N root) {
+        this.graph = graph;
+        List<N> nodes = new DepthFirstOrder<>(graph, root).getReversePostOrder();
+        positions = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            positions.put(nodes.get(i), i);
+        }
+        elements = decompose(nodes);
+    }
+
+    /**
+     * @return the top-level elements of this WTO.
+     */
+    public List<Element<N>> getElements() {
+        return elements;
+    }
+
+    /**
+     * Decomposes the subgraph induced by given nodes into elements.
+     *
+     * @param nodes the nodes to be decomposed, sorted by their positions.
+     */
+    private List<Element<N>> decompose(List<N> nodes) {
+        List<Element<N>> result = new ArrayList<>();
+        for (List<N> scc : computeSCCs(nodes)) {
+            if (scc.size() == 1 && !graph.hasEdge(scc.get(0), scc.get(0))) {
+                result.add(new Element<>(scc.get(0), null));
+            } else {
+                scc.sort((n1, n2) -> positions.get(n1) - positions.get(n2));
+                List<Element<N>> body = decompose(scc.subList(1, scc.size()));
+                result.add(new Element<>(scc.get(0), body));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Computes the strongly connected components of the subgraph induced
+     * by given nodes with (iterative) Tarjan's algorithm.
+     *
+     * @return the SCCs in topological order.
+     */
+    private List<List<N>> computeSCCs(List<N> nodes) {
+        Set<N> scope = Sets.newSet(nodes.size());
+        scope.addAll(nodes);
+        Map<N, Integer> indexes = Maps.newMap(nodes.size());
+        Map<N, Integer> lowLinks = Maps.newMap(nodes.size());
+        Deque<N> stack = new ArrayDeque<>();
+        Set<N> onStack = Sets.newSet(nodes.size());
+        List<List<N>> sccs = new ArrayList<>();
+        Deque<N> callNodes = new ArrayDeque<>();
+        Deque<Iterator<N>> callSuccs = new ArrayDeque<>();
+        for (N root : nodes) {
+            if (indexes.containsKey(root)) {
+                continue;
+            }
+            callNodes.push(root);
+            callSuccs.push(graph.getSuccsOf(root).iterator());
+            indexes.put(root, indexes.size());
+            lowLinks.put(root, indexes.get(root));
+            stack.push(root);
+            onStack.add(root);
+            while (!callNodes.isEmpty()) {
+                N node = callNodes.peek();
+                Iterator<N> succs = callSuccs.peek();
+                if (succs.hasNext()) {
+                    N succ = succs.next();
+                    if (!scope.contains(succ)) {
+                        continue;
+                    }
+                    if (!indexes.containsKey(succ)) {
+                        callNodes.push(succ);
+                        callSuccs.push(graph.getSuccsOf(succ).iterator());
+                        indexes.put(succ, indexes.size());
+                        lowLinks.put(succ, indexes.get(succ));
+                        stack.push(succ);
+                        onStack.add(succ);
+                    } else if (onStack.contains(succ)) {
+                        lowLinks.put(node,
+                                Math.min(lowLinks.get(node), indexes.get(succ)));
+                    }
+                } else {
+                    callNodes.pop();
+                    callSuccs.pop();
+                    N parent = callNodes.peek();
+                    if (parent != null) {
+                        lowLinks.put(parent,
+                                Math.min(lowLinks.get(parent), lowLinks.get(node)));
+                    }
+                    if (lowLinks.get(node).equals(indexes.get(node))) {
+                        List<N> scc = new ArrayList<>();
+                        N member;
+                        do {
+                            member = stack.pop();
+                            onStack.remove(member);
+                            scc.add(member);
+                        } while (member != node);
+                        sccs.add(scc);
+                    }
+                }
+            }
+        }
+        // Tarjan's algorithm finds SCCs in reverse topological order
+        Collections.reverse(sccs);
+        return sccs;
+    }
+
+    /**
+     * An element of WTO, which is either a single node or a component.
+     */
+    public static class Element<N> {
+
+        private final N node;
+
+        private final List<Element<N>> body;
+
+        private Element(N node, List<Element<N>> body) {
+            this.node = node;
+            this.body = body;
+        }
+
+        /**
+         * @return the node of this element, which is the head
+         * if this element is a component.
+         */
+        public N getNode() {
+            return node;
+        }
+
+        /**
+         * @return true if this element is a component, otherwise false.
+         */
+        public boolean isComponent() {
+            return body != null;
+        }
+
+        /**
+         * @return the elements nested in this component (excluding the head),
+         * or an empty list if this element is a single node.
+         */
+        public List<Element<N>> getBody() {
+            return body != null ? body : List.of();
+        }
+
+        @Override
+        public String toString() {
+            return body != null ? "(" + node + " " + body + ")" : node.toString();
+        }
+    }
+}
@@ -28,8 +28,12 @@ import pascal.taie.analysis.Tests;
 public class CPTest {
 
     void testCP(String inputClass) {
+        testCP(inputClass, "edge-refine:false");
+    }
+
+    void testCP(String inputClass, String opts) {
         Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
-                ConstantPropagation.ID, "edge-refine:false");
+                ConstantPropagation.ID, opts);
     }
 
     @Test
@@ -66,4 +70,14 @@ public class CPTest {
     public void testInterprocedural() {
         testCP("Interprocedural");
     }
+
+    @Test
+    public void testBranchConstantWithWTOSolver() {
+        testCP("BranchConstant", "edge-refine:false;solver:wto");
+    }
+
+    @Test
+    public void testInterproceduralWithWTOSolver() {
+        testCP("Interprocedural", "edge-refine:false;solver:wto");
+    }
 }
@@ -13,6 +13,21 @@ dependencies {
     testImplementation("junit:junit:4.13")
 }
 
+// JMH benchmarks in src/jmh, run them by "./gradlew jmh"
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations.implementation.get())
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
 application {
     mainClass.set("pascal.taie.Assignment")
 }
@@ -20,6 +35,17 @@ application {
 tasks.compileJava { options.encoding = "UTF-8" }
 tasks.compileTestJava { options.encoding = "UTF-8" }
 
+tasks.named<JavaCompile>("compileJmhJava") { options.encoding = "UTF-8" }
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks, e.g., -PjmhArgs=\"-p input=synthetic -prof gc\""
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    workingDir = projectDir
+    args = (findProperty("jmhArgs") as String? ?: "-prof gc").split(" ")
+}
+
 tasks.test {
     useJUnit()
     maxHeapSize = "4G"
@@ -0,0 +1,183 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inputs of the solver benchmarks, i.e., the IRs (with their CFGs
+ * stored in them) of the methods to be analyzed.
+ */
+final class BenchmarkInputs {
+
+    /**
+     * Directory of the test resources, relative to the project directory.
+     */
+    private static final String RESOURCES = "src/test/resources/dataflow/deadcode";
+
+    /**
+     * Main classes in {@link #RESOURCES}.
+     */
+    private static final List<String> RESOURCE_CLASSES = List.of(
+            "ControlFlowUnreachable", "DeadAssignment", "Loops",
+            "UnreachableIfBranch", "UnreachableSwitchBranch");
+
+    /**
+     * IRs of the methods in the test resources. As the world can be
+     * built only once in a JVM, they are loaded once and shared by
+     * all benchmarks in the same fork.
+     */
+    private static List<IR> resourceIRs;
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * @return the IRs of the methods in the test resources.
+     */
+    static synchronized List<IR> loadResources() {
+        if (resourceIRs == null) {
+            Main.buildWorld("-pp", "-cp", RESOURCES,
+                    "-m", RESOURCE_CLASSES.get(0));
+            resourceIRs = World.get()
+                    .getClassHierarchy()
+                    .applicationClasses()
+                    .filter(c -> RESOURCE_CLASSES.contains(c.getName()))
+                    .map(JClass::getDeclaredMethods)
+                    .flatMap(Collection::stream)
+                    .filter(m -> !m.isAbstract() && !m.isNative())
+                    .map(JMethod::getIR)
+                    .peek(BenchmarkInputs::buildCFG)
+                    .toList();
+        }
+        return resourceIRs;
+    }
+
+    /**
+     * Generates a method which consists of {@code depth} nested loops,
+     * where the innermost loop body assigns each of {@code nVars} int
+     * variables from two other variables, thus the facts at each
+     * statement are of size O(nVars).
+     */
+    static IR generate(int depth, int nVars) {
+        List<Var> vars = new ArrayList<>();
+        for (int i = 0; i < nVars; ++i) {
+            vars.add(newVar(vars, "v" + i));
+        }
+        Var one = newVar(vars, "one");
+        Var bound = newVar(vars, "bound");
+        List<Stmt> stmts = new ArrayList<>();
+        for (int i = 0; i < nVars; ++i) {
+            stmts.add(new AssignLiteral(vars.get(i), IntLiteral.get(i % 7)));
+        }
+        stmts.add(new AssignLiteral(one, IntLiteral.get(1)));
+        stmts.add(new AssignLiteral(bound, IntLiteral.get(100)));
+        generateLoop(stmts, vars, depth, nVars, one, bound);
+        stmts.add(new Return());
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+        }
+        IR ir = new DefaultIR(null, null, List.of(), Set.of(),
+                vars, stmts, List.of());
+        buildCFG(ir);
+        return ir;
+    }
+
+    /**
+     * Generates {@code depth} nested loops:
+     * <pre>
+     * i = 0;
+     * head: if (i >= bound) goto exit;
+     *     body (inner loop, or assignments if depth is 1)
+     *     i = i + one;
+     *     goto head;
+     * exit: nop;
+     * </pre>
+     */
+    private static void generateLoop(List<Stmt> stmts, List<Var> vars,
+                                     int depth, int nVars, Var one, Var bound) {
+        Var i = newVar(vars, "i" + depth);
+        Nop exit = new Nop();
+        stmts.add(new AssignLiteral(i, IntLiteral.get(0)));
+        If head = new If(new ConditionExp(ConditionExp.Op.GE, i, bound));
+        head.setTarget(exit);
+        stmts.add(head);
+        if (depth > 1) {
+            generateLoop(stmts, vars, depth - 1, nVars, one, bound);
+        } else {
+            for (int v = 0; v < nVars; ++v) {
+                stmts.add(new Binary(vars.get(v), new ArithmeticExp(
+                        ArithmeticExp.Op.ADD,
+                        vars.get((v + nVars - 1) % nVars),
+                        vars.get((v * 7 + depth) % nVars))));
+            }
+        }
+        stmts.add(new Binary(i, new ArithmeticExp(ArithmeticExp.Op.ADD, i, one)));
+        Goto back = new Goto();
+        back.setTarget(head);
+        stmts.add(back);
+        stmts.add(exit);
+    }
+
+    private static Var newVar(List<Var> vars, String name) {
+        Var var = new Var(null, name, PrimitiveType.INT, vars.size());
+        vars.add(var);
+        return var;
+    }
+
+    /**
+     * Builds the CFG (without exceptional edges) of given IR,
+     * and stores it in the IR as the analyses expect.
+     */
+    private static void buildCFG(IR ir) {
+        CFGBuilder builder = new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                "exception", "none", "dump", false));
+        CFG<Stmt> cfg = builder.analyze(ir);
+        ir.storeResult(CFGBuilder.ID, cfg);
+    }
+}
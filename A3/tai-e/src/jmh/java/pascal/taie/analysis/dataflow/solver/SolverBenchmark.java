@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.util.AnalysisException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the throughput of the solvers and fact implementations
+ * of the intra-procedural data-flow analyses. Run it by
+ * <pre>
+ * ./gradlew jmh
+ * </pre>
+ * which also reports the allocation rate via {@code -prof gc}.
+ * Other JMH arguments can be given by {@code -PjmhArgs="..."}, e.g.,
+ * {@code -PjmhArgs="-p input=synthetic -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4G")
+public class SolverBenchmark {
+
+    /**
+     * Methods to be analyzed: the methods in the test resources,
+     * or the generated methods with deep loop nests and many variables.
+     */
+    @Param({"resources", "synthetic"})
+    public String input;
+
+    /**
+     * Solver configuration, i.e., work-list solver in FIFO or priority
+     * order, WTO solver, or block solver (work-list in FIFO order).
+     */
+    @Param({"worklist-fifo", "worklist-priority", "wto", "block"})
+    public String solver;
+
+    /**
+     * Analysis and its fact implementation.
+     */
+    @Param({"livevar-set", "livevar-bitset", "constprop-map", "constprop-packed"})
+    public String analysis;
+
+    private List<IR> irs;
+
+    private MethodAnalysis methodAnalysis;
+
+    @Setup
+    public void setup() {
+        irs = switch (input) {
+            case "resources" -> BenchmarkInputs.loadResources();
+            case "synthetic" -> List.of(
+                    BenchmarkInputs.generate(6, 100),
+                    BenchmarkInputs.generate(2, 1000),
+                    BenchmarkInputs.generate(1, 3000));
+            default -> throw new AnalysisException("Unknown input: " + input);
+        };
+        Object[] solverOptions = switch (solver) {
+            case "worklist-fifo" -> new Object[]{
+                    "solver", "worklist", "worklist", "fifo"};
+            case "worklist-priority" -> new Object[]{
+                    "solver", "worklist", "worklist", "priority"};
+            case "wto" -> new Object[]{"solver", "wto"};
+            case "block" -> new Object[]{"granularity", "block"};
+            default -> throw new AnalysisException("Unknown solver: " + solver);
+        };
+        String[] idAndFact = analysis.split("-");
+        String id = idAndFact[0];
+        Object[] options = new Object[solverOptions.length + 2];
+        System.arraycopy(solverOptions, 0, options, 0, solverOptions.length);
+        options[solverOptions.length] = "fact";
+        options[solverOptions.length + 1] = idAndFact[1];
+        AnalysisConfig config = new AnalysisConfig(id, options);
+        methodAnalysis = switch (id) {
+            case LiveVariableAnalysis.ID -> new LiveVariableAnalysis(config);
+            case ConstantPropagation.ID -> new ConstantPropagation(config);
+            default -> throw new AnalysisException("Unknown analysis: " + id);
+        };
+    }
+
+    @Benchmark
+    public void solve(Blackhole bh) {
+        for (IR ir : irs) {
+            bh.consume(methodAnalysis.analyze(ir));
+        }
+    }
+}
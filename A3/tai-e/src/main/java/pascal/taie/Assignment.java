@@ -22,6 +22,8 @@
 
 package pascal.taie;
 
+import pascal.taie.util.ParallelExecutor;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -36,7 +38,10 @@ public class Assignment {
             List<String> argList = new ArrayList<>();
             Collections.addAll(argList, "-pp", "-p", "plan.yml");
             Collections.addAll(argList, args);
-            Main.main(argList.toArray(new String[0]));
+            // the method analyses and result processing run in parallel,
+            // see ParallelExecutor for how to specify the parallelism
+            ParallelExecutor.run(ParallelExecutor.getParallelism(),
+                    () -> Main.main(argList.toArray(new String[0])));
         } else {
             System.out.println("Usage: -cp <CLASS_PATH> -m <CLASS_NAME>");
         }
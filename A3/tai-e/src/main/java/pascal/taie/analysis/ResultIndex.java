@@ -0,0 +1,278 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Index of a result file dumped by {@link ResultProcessor}, which maps
+ * each (method, analysis) to the offsets of its section in the file and
+ * the digest of the section. The lines of a section are read (from the
+ * memory-mapped file) only on demand, so that a result can be compared
+ * with a huge file without loading the whole file into memory: if its
+ * digest equals to the one of the corresponding section, then there is
+ * no need to read the section at all.
+ * <p>
+ * The digest of a section only covers its non-blank lines, as the blank
+ * lines are ignored when comparing results.
+ */
+final class ResultIndex implements Closeable {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Size of the window to scan the file when building the index.
+     */
+    private static final long WINDOW_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+
+    private final Map<Pair<String, String>, Section> sections = Maps.newMap();
+
+    /**
+     * A section of the file. A key may (though it should not) occur
+     * multiple times in a file, then its section consists of multiple
+     * ranges, and the lines of all ranges are merged.
+     */
+    private static class Section {
+
+        /**
+         * Start (inclusive) and end (exclusive) offsets of the ranges.
+         */
+        private long[] ranges = new long[0];
+
+        /**
+         * Digest of the section, or null if it consists of multiple ranges.
+         */
+        private byte[] digest;
+    }
+
+    private ResultIndex(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Builds the index of given result file by scanning it once.
+     */
+    static ResultIndex build(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        ResultIndex index = new ResultIndex(channel);
+        try {
+            index.scan();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return index;
+    }
+
+    private void scan() throws IOException {
+        long size = channel.size();
+        MessageDigest digest = newDigest();
+        Section current = null;
+        byte[] line = new byte[256];
+        int length = 0;
+        long lineStart = 0;
+        for (long base = 0; base < size; base += WINDOW_SIZE) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    base, Math.min(WINDOW_SIZE, size - base));
+            while (window.hasRemaining()) {
+                byte b = window.get();
+                if (b == '\n') {
+                    long lineEnd = base + window.position();
+                    current = processLine(line, length, lineStart, lineEnd,
+                            current, digest);
+                    length = 0;
+                    lineStart = lineEnd;
+                } else {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = b;
+                }
+            }
+        }
+        if (length > 0) {
+            current = processLine(line, length, lineStart, size,
+                    current, digest);
+        }
+        finishSection(current, size, digest);
+    }
+
+    /**
+     * Processes a line (without the line terminator) which starts at
+     * {@code lineStart}, and the next line starts at {@code lineEnd}.
+     *
+     * @return the section which the following lines belong to.
+     */
+    private Section processLine(byte[] line, int length,
+                                long lineStart, long lineEnd,
+                                Section current, MessageDigest digest) {
+        if (length > 0 && line[length - 1] == '\r') {
+            --length;
+        }
+        if (isHeader(line, length)) {
+            finishSection(current, lineStart, digest);
+            Pair<String, String> key = extractKey(
+                    new String(line, 0, length, StandardCharsets.UTF_8));
+            Section section = sections.computeIfAbsent(key, k -> new Section());
+            int n = section.ranges.length;
+            section.ranges = Arrays.copyOf(section.ranges, n + 2);
+            section.ranges[n] = lineEnd; // the section starts after the header
+            return section;
+        }
+        if (current != null && !isBlank(line, length)) {
+            update(digest, line, length);
+        }
+        return current;
+    }
+
+    private static void finishSection(Section section, long end,
+                                      MessageDigest digest) {
+        if (section != null) {
+            int n = section.ranges.length;
+            section.ranges[n - 1] = end;
+            // the digest of a section with multiple ranges is not computed
+            section.digest = n == 2 ? digest.digest() : null;
+        }
+        digest.reset();
+    }
+
+    /**
+     * @return true if the lines of the section of given key (if any)
+     * are exactly the non-blank ones of given lines.
+     */
+    boolean matches(Pair<String, String> key, Stream<String> lines) {
+        Section section = sections.get(key);
+        if (section == null || section.digest == null) {
+            return false;
+        }
+        MessageDigest digest = newDigest();
+        lines.forEach(line -> {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            if (!isBlank(bytes, bytes.length)) {
+                update(digest, bytes, bytes.length);
+            }
+        });
+        return MessageDigest.isEqual(section.digest, digest.digest());
+    }
+
+    /**
+     * Reads the non-blank lines of the section of given key.
+     *
+     * @return the lines, or an empty set if the file does not
+     * contain the key.
+     */
+    Set<String> getLines(Pair<String, String> key) {
+        Set<String> lines = new LinkedHashSet<>();
+        Section section = sections.get(key);
+        if (section != null) {
+            for (int i = 0; i < section.ranges.length; i += 2) {
+                long start = section.ranges[i];
+                long end = section.ranges[i + 1];
+                try {
+                    MappedByteBuffer buffer = channel.map(
+                            FileChannel.MapMode.READ_ONLY, start, end - start);
+                    StandardCharsets.UTF_8.decode(buffer)
+                            .toString()
+                            .lines()
+                            .filter(line -> !line.isBlank())
+                            .forEach(lines::add);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to read input file", e);
+                }
+            }
+        }
+        return lines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static Pair<String, String> extractKey(String line) {
+        if (line.startsWith("----------") && line.endsWith("----------")) {
+            int ms = line.indexOf('<'); // method start
+            int me = line.indexOf("> "); // method end
+            String method = line.substring(ms, me + 1);
+            int as = line.lastIndexOf('('); // analysis start
+            int ae = line.lastIndexOf(')'); // analysis end
+            String analysis = line.substring(as + 1, ae);
+            return new Pair<>(method, analysis);
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isHeader(byte[] line, int length) {
+        if (length < 20) {
+            return false;
+        }
+        for (int i = 0; i < 10; ++i) {
+            if (line[i] != '-' || line[length - 1 - i] != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; ++i) {
+            byte b = line[i];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\f' && b != 0x0b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void update(MessageDigest digest, byte[] line, int length) {
+        digest.update(line, 0, length);
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -25,21 +25,21 @@ package pascal.taie.analysis;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.IRPrinter;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.ResultCache;
 import pascal.taie.util.collection.Pair;
 
-import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.nio.file.Files;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Comparator;
@@ -58,7 +58,9 @@ import static pascal.taie.util.collection.CollectionUtils.getOne;
  * Special class for process the results of other analyses after they finish.
  * This class is designed mainly for testing purpose. Currently, it supports
  * input/output analysis results from/to file, and compare analysis results
- * with input results. This analysis should be placed after the other analyses.
+ * with input results. It also dumps the metrics of data-flow solvers to the
+ * file given by option "metrics" (if any), see {@link SolverMetrics}.
+ * This analysis should be placed after the other analyses.
  */
 public class ResultProcessor extends ProgramAnalysis {
 
@@ -70,7 +72,7 @@ public class ResultProcessor extends ProgramAnalysis {
 
     private PrintStream out;
 
-    private MultiMap<Pair<String, String>, String> inputs;
+    private ResultIndex inputs;
 
     private Set<String> mismatches;
 
@@ -98,9 +100,18 @@ public class ResultProcessor extends ProgramAnalysis {
         if (groups.containsKey(false)) {
             processIntraResults(groups.get(false));
         }
+        if (inputs != null) {
+            closeInputs();
+        }
         if (getOptions().getBoolean("log-mismatches")) {
             mismatches.forEach(logger::info);
         }
+        ResultCache.logStatistics();
+        ResultCache.closeAll();
+        String metrics = getOptions().getString("metrics");
+        if (metrics != null) {
+            SolverMetrics.dump(metrics);
+        }
         return mismatches;
     }
 
@@ -119,36 +130,18 @@ public class ResultProcessor extends ProgramAnalysis {
 
     private void readInputs() {
         String input = getOptions().getString("file");
-        Path path = Path.of(input);
         try {
-            inputs = Maps.newMultiMap();
-            BufferedReader reader = Files.newBufferedReader(path);
-            String line;
-            Pair<String, String> currentKey = null;
-            while ((line = reader.readLine()) != null) {
-                Pair<String, String> key = extractKey(line);
-                if (key != null) {
-                    currentKey = key;
-                } else if (!line.isBlank()) {
-                    inputs.put(currentKey, line);
-                }
-            }
+            inputs = ResultIndex.build(Path.of(input));
         } catch (IOException e) {
             throw new RuntimeException("Failed to read input file", e);
         }
     }
 
-    private static Pair<String, String> extractKey(String line) {
-        if (line.startsWith("----------") && line.endsWith("----------")) {
-            int ms = line.indexOf('<'); // method start
-            int me = line.indexOf("> "); // method end
-            String method = line.substring(ms, me + 1);
-            int as = line.lastIndexOf('('); // analysis start
-            int ae = line.lastIndexOf(')'); // analysis end
-            String analysis = line.substring(as + 1, ae);
-            return new Pair<>(method, analysis);
-        } else {
-            return null;
+    private void closeInputs() {
+        try {
+            inputs.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close input file", e);
         }
     }
 
@@ -164,20 +157,38 @@ public class ResultProcessor extends ProgramAnalysis {
         processResults(methods, analyses, (m, id) -> m.getIR().getResult(id));
     }
 
+    /**
+     * Processes the results of the methods in parallel. The results of
+     * each method are converted to strings independently, and then
+     * dumped/collected in the order of given methods, so that the output
+     * is deterministic and the same as processing them sequentially.
+     */
     private void processResults(Stream<JMethod> methods, List<String> analyses,
                                 BiFunction<JMethod, String, ?> resultGetter) {
-        methods.forEach(method ->
-                analyses.forEach(id -> {
-                    switch (action) {
-                        case "dump" -> dumpResult(method, id, resultGetter);
-                        case "compare" -> compareResult(method, id, resultGetter);
-                    }
-                })
-        );
+        switch (action) {
+            case "dump" -> methods.parallel()
+                    .map(method -> {
+                        StringWriter buffer = new StringWriter();
+                        PrintWriter writer = new PrintWriter(buffer);
+                        analyses.forEach(id ->
+                                dumpResult(writer, method, id, resultGetter));
+                        writer.flush();
+                        return buffer.toString();
+                    })
+                    .forEachOrdered(out::print);
+            case "compare" -> methods.parallel()
+                    .map(method -> {
+                        Set<String> methodMismatches = new LinkedHashSet<>();
+                        analyses.forEach(id -> compareResult(
+                                methodMismatches, method, id, resultGetter));
+                        return methodMismatches;
+                    })
+                    .forEachOrdered(mismatches::addAll);
+        }
     }
 
-    private void dumpResult(JMethod method, String id,
-                            BiFunction<JMethod, String, ?> resultGetter) {
+    private static void dumpResult(PrintWriter out, JMethod method, String id,
+                                   BiFunction<JMethod, String, ?> resultGetter) {
         out.printf("-------------------- %s (%s) --------------------%n", method, id);
         Object result = resultGetter.apply(method, id);
         if (result instanceof Set) {
@@ -211,9 +222,19 @@ public class ResultProcessor extends ProgramAnalysis {
         return toString(stmt) + " " + toString(result.getResult(stmt));
     }
 
-    private void compareResult(JMethod method, String id,
+    private void compareResult(Set<String> methodMismatches, JMethod method, String id,
                                BiFunction<JMethod, String, ?> resultGetter) {
-        Set<String> inputResult = inputs.get(new Pair<>(method.toString(), id));
+        Pair<String, String> key = new Pair<>(method.toString(), id);
+        // the result matches the input if their dumps have the same digest,
+        // then there is no need to read the lines of the input
+        StringWriter buffer = new StringWriter();
+        PrintWriter writer = new PrintWriter(buffer);
+        dumpResult(writer, method, id, resultGetter);
+        writer.flush();
+        if (inputs.matches(key, buffer.toString().lines().skip(1))) {
+            return;
+        }
+        Set<String> inputResult = inputs.getLines(key);
         Object result = resultGetter.apply(method, id);
         if (result instanceof Set) {
             Set<String> given = ((Set<?>) result)
@@ -222,26 +243,25 @@ public class ResultProcessor extends ProgramAnalysis {
                     .collect(Collectors.toCollection(LinkedHashSet::new));
             given.forEach(s -> {
                 if (!inputResult.contains(s)) {
-                    mismatches.add(method + " " + s +
+                    methodMismatches.add(method + " " + s +
                             " should NOT be included");
                 }
             });
             inputResult.forEach(s -> {
                 if (!given.contains(s)) {
-                    mismatches.add(method + " " + s +
+                    methodMismatches.add(method + " " + s +
                             " should be included");
                 }
             });
         } else if (result instanceof StmtResult<?> StmtResult) {
-            Set<String> lines = inputs.get(new Pair<>(method.toString(), id));
             IR ir = method.getIR();
             ir.forEach(stmt -> {
                 String stmtStr = toString(stmt);
                 String given = toString(stmt, StmtResult);
-                for (String line : lines) {
+                for (String line : inputResult) {
                     if (line.startsWith(stmtStr) && !line.equals(given)) {
                         int idx = stmtStr.length();
-                        mismatches.add(String.format("%s %s expected: %s, given: %s",
+                        methodMismatches.add(String.format("%s %s expected: %s, given: %s",
                                 method, stmtStr, line.substring(idx + 1),
                                 given.substring(idx + 1)));
                     }
@@ -249,7 +269,7 @@ public class ResultProcessor extends ProgramAnalysis {
             });
         } else if (inputResult.size() == 1) {
             if (!toString(result).equals(getOne(inputResult))) {
-                mismatches.add(String.format("%s expected: %s, given: %s",
+                methodMismatches.add(String.format("%s expected: %s, given: %s",
                         method, getOne(inputResult), toString(result)));
             }
         } else {
@@ -24,12 +24,21 @@ package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.solver.BlockSolver;
 import pascal.taie.analysis.dataflow.solver.Solver;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.ResultCache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public abstract class AbstractDataflowAnalysis<Node, Fact>
         extends MethodAnalysis
@@ -37,17 +46,121 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
 
     private final Solver<Node, Fact> solver;
 
+    /**
+     * Solver on basic blocks, which is used instead of {@link #solver}
+     * when option "granularity" is "block". This is only applicable to
+     * the analyses on statements.
+     */
+    private final BlockSolver<Fact> blockSolver;
+
+    /**
+     * Persistent cache of the results, which is non-null iff
+     * option "cache-dir" is given. This is only applicable to
+     * the analyses on statements which support encoding their facts,
+     * see {@link #supportsCache()}.
+     */
+    private final ResultCache cache;
+
+    /**
+     * Version of the cached results, which should be increased when
+     * the analysis or the encoding of its results changes.
+     */
+    private static final int CACHE_VERSION = 1;
+
+    @SuppressWarnings("unchecked")
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
-        solver = Solver.makeSolver(this);
+        if (getOptions().getString("cache-dir") != null && !supportsCache()) {
+            throw new ConfigException("Option cache-dir is not supported by "
+                    + getId() + ", which cannot encode its facts");
+        }
+        solver = Solver.makeSolver(this, getOptions());
+        blockSolver = "block".equals(getOptions().getString("granularity")) ?
+                new BlockSolver<>((DataflowAnalysis<Stmt, Fact>) this, getOptions()) :
+                null;
+        cache = ResultCache.open(getId(), CACHE_VERSION, getOptions());
     }
 
     @Override
-    public DataflowResult<Node, Fact> analyze(IR ir) {
+    public NodeResult<Node, Fact> analyze(IR ir) {
+        if (cache != null) {
+            return cache.getOrCompute(ir, this::solve,
+                    this::encodeResult, this::decodeResult);
+        }
+        return solve(ir);
+    }
+
+    /**
+     * Solves this analysis on the CFG of given IR.
+     */
+    @SuppressWarnings("unchecked")
+    protected NodeResult<Node, Fact> solve(IR ir) {
+        if (blockSolver != null) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return (NodeResult<Node, Fact>) blockSolver.solve(cfg);
+        }
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
         return solver.solve(cfg);
     }
 
+    private void encodeResult(NodeResult<Node, Fact> result, IR ir,
+                              DataOutput out) throws IOException {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        out.writeInt(cfg.getNumberOfNodes());
+        for (Node node : cfg) {
+            out.writeInt(((Stmt) node).getIndex());
+            encodeFact(result.getInFact(node), out);
+            encodeFact(result.getOutFact(node), out);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private NodeResult<Node, Fact> decodeResult(IR ir, DataInput in)
+            throws IOException {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        Object[] nodes = new Object[cfg.getNumberOfNodes()];
+        cfg.forEach(node -> nodes[((Stmt) node).getIndex()] = node);
+        DataflowResult<Node, Fact> result = new DataflowResult<>(
+                node -> ((Stmt) node).getIndex(), nodes.length);
+        int nNodes = in.readInt();
+        for (int i = 0; i < nNodes; ++i) {
+            Node node = (Node) nodes[in.readInt()];
+            result.setInFact(node, decodeFact(ir, in));
+            result.setOutFact(node, decodeFact(ir, in));
+        }
+        return result;
+    }
+
+    /**
+     * @return true if this analysis supports the result cache, i.e.,
+     * overrides {@link #encodeFact(Object, DataOutput)} and
+     * {@link #decodeFact(IR, DataInput)}. This is called by the constructor,
+     * thus it must not depend on the fields of subclasses.
+     */
+    protected boolean supportsCache() {
+        return false;
+    }
+
+    /**
+     * Encodes given fact for the result cache.
+     * Analyses supporting the cache should override this method,
+     * {@link #decodeFact(IR, DataInput)} and {@link #supportsCache()}.
+     */
+    protected void encodeFact(Fact fact, DataOutput out) throws IOException {
+        throw new UnsupportedOperationException(
+                getId() + " does not support result cache");
+    }
+
+    /**
+     * Decodes a fact encoded by {@link #encodeFact(Object, DataOutput)}.
+     *
+     * @param ir the IR which the fact belongs to
+     */
+    protected Fact decodeFact(IR ir, DataInput in) throws IOException {
+        throw new UnsupportedOperationException(
+                getId() + " does not support result cache");
+    }
+
     /**
      * By default, a data-flow analysis does not have edge transfer, i.e.,
      * does not need to perform transfer for any edges.
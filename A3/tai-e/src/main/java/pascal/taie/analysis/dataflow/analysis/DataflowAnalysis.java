@@ -55,6 +55,25 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     void meetInto(Fact fact, Fact target);
 
+    /**
+     * @return true if this analysis needs widening to terminate, i.e.,
+     * its lattice has infinite ascending chains, otherwise false.
+     */
+    default boolean needWidening() {
+        return false;
+    }
+
+    /**
+     * Widens a fact into another (target) fact, i.e., meets them and
+     * extrapolates the result, so that repeated widening stabilizes in
+     * finite steps. If {@link #needWidening()}, the solvers use this
+     * function instead of {@link #meetInto(Object, Object)} to handle
+     * the facts flowing into loop heads.
+     */
+    default void widenInto(Fact fact, Fact target) {
+        meetInto(fact, target);
+    }
+
     /**
      * Node Transfer function for the analysis.
      * The function transfers data-flow from in (out) fact to out (in) fact
@@ -26,7 +26,10 @@ import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.analysis.interval.Interval;
+import pascal.taie.analysis.dataflow.analysis.interval.IntervalAnalysis;
+import pascal.taie.analysis.dataflow.analysis.interval.IntervalFact;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
@@ -44,28 +47,80 @@ import pascal.taie.ir.stmt.AssignStmt;
 import pascal.taie.ir.stmt.If;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.ResultCache;
 import soot.jimple.IfStmt;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 public class DeadCodeDetection extends MethodAnalysis {
 
     public static final String ID = "deadcode";
 
+    /**
+     * Constant propagation used by {@link FusedDeadCodeDetection},
+     * which is null if the fused algorithm is not enabled.
+     */
+    private final ConstantPropagation fusedCP;
+
+    /**
+     * Persistent cache of the results of the fused algorithm, which is
+     * non-null iff option "cache-dir" is given. The results of the other
+     * algorithm are not cached, as they depend on the results of
+     * other analyses, whose options are not part of the cache keys.
+     */
+    private final ResultCache cache;
+
+    /**
+     * Version of the cached results, which should be increased when
+     * the analysis or the encoding of its results changes.
+     */
+    private static final int CACHE_VERSION = 1;
+
+    /**
+     * Interval analysis used to prune the branches whose conditions are
+     * decided by the ranges of the variables (but not constants), which
+     * is null if option "interval" is false. This is only applicable to
+     * the standard algorithm.
+     */
+    private final IntervalAnalysis intervalAnalysis;
+
     public DeadCodeDetection(AnalysisConfig config) {
         super(config);
+        fusedCP = "fused".equals(getOptions().getString("algorithm")) ?
+                new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID)) :
+                null;
+        cache = fusedCP != null ? ResultCache.open(getId(), CACHE_VERSION, getOptions()) : null;
+        intervalAnalysis = getOptions().getBooleanOrDefault("interval", false) ?
+                new IntervalAnalysis(new AnalysisConfig(IntervalAnalysis.ID,
+                        "widening-delay", getOptions().get("widening-delay"))) :
+                null;
     }
 
     @Override
     public Set<Stmt> analyze(IR ir) {
         // obtain CFG
         CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        if (fusedCP != null) {
+            if (cache != null) {
+                return cache.getOrCompute(ir,
+                        i -> FusedDeadCodeDetection.detect(cfg, fusedCP),
+                        DeadCodeDetection::encodeResult,
+                        DeadCodeDetection::decodeResult);
+            }
+            return FusedDeadCodeDetection.detect(cfg, fusedCP);
+        }
         // obtain result of constant propagation
-        DataflowResult<Stmt, CPFact> constants =
+        NodeResult<Stmt, CPFact> constants =
                 ir.getResult(ConstantPropagation.ID);
         // obtain result of live variable analysis
-        DataflowResult<Stmt, SetFact<Var>> liveVars =
+        NodeResult<Stmt, SetFact<Var>> liveVars =
                 ir.getResult(LiveVariableAnalysis.ID);
+        // obtain result of interval analysis (if enabled)
+        NodeResult<Stmt, IntervalFact> intervals = intervalAnalysis != null ?
+                intervalAnalysis.analyze(ir) : null;
         // keep statements (dead code) sorted in the resulting set
         Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
         // TODO - finish me
@@ -86,6 +141,12 @@ public class DeadCodeDetection extends MethodAnalysis {
             } else if (stmt instanceof If ifStmt) {
                 liveCode.add(stmt);
                 Value conditionValue = ConstantPropagation.evaluate(ifStmt.getCondition(), constants.getInFact(stmt));
+                if (!conditionValue.isConstant() && intervals != null) {
+                    Interval condition = IntervalAnalysis.evaluate(ifStmt.getCondition(), intervals.getInFact(stmt));
+                    if (condition.isConstant()) {
+                        conditionValue = Value.makeConstant(condition.getLower());
+                    }
+                }
                 if (conditionValue.isConstant()) {
                     for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
                         if ((conditionValue.getConstant() == 1 && edge.getKind() == Edge.Kind.IF_TRUE) || (conditionValue.getConstant() == 0 && edge.getKind() == Edge.Kind.IF_FALSE)) {
@@ -98,6 +159,12 @@ public class DeadCodeDetection extends MethodAnalysis {
             } else if (stmt instanceof SwitchStmt switchStmt) {
                 liveCode.add(stmt);
                 Value varValue = ConstantPropagation.evaluate(switchStmt.getVar(), constants.getInFact(stmt));
+                if (!varValue.isConstant() && intervals != null) {
+                    Interval var = IntervalAnalysis.evaluate(switchStmt.getVar(), intervals.getInFact(stmt));
+                    if (var.isConstant()) {
+                        varValue = Value.makeConstant(var.getLower());
+                    }
+                }
                 if (varValue.isConstant()) {
                     if (switchStmt.getCaseValues().contains(varValue.getConstant())) {
                         for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
@@ -123,10 +190,27 @@ public class DeadCodeDetection extends MethodAnalysis {
     }
 
 
+    private static void encodeResult(Set<Stmt> deadCode, IR ir,
+                                     DataOutput out) throws IOException {
+        out.writeInt(deadCode.size());
+        for (Stmt stmt : deadCode) {
+            out.writeInt(stmt.getIndex());
+        }
+    }
+
+    private static Set<Stmt> decodeResult(IR ir, DataInput in) throws IOException {
+        Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        int size = in.readInt();
+        for (int i = 0; i < size; ++i) {
+            deadCode.add(ir.getStmt(in.readInt()));
+        }
+        return deadCode;
+    }
+
     /**
      * @return true if given RValue has no side effect, otherwise false.
      */
-    private static boolean hasNoSideEffect(RValue rvalue) {
+    static boolean hasNoSideEffect(RValue rvalue) {
         // new expression modifies the heap
         if (rvalue instanceof NewExp ||
                 // cast may trigger ClassCastException
@@ -0,0 +1,224 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.ConditionalConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignStmt;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Dead code detection which fuses its underlying analyses into a single
+ * pipeline, instead of querying the results of {@link ConstantPropagation}
+ * and {@link LiveVariableAnalysis}, which hold facts for every statement.
+ * <ol>
+ *     <li>{@link ConditionalConstantPropagation} computes the constants
+ *     and the reachable statements together, i.e., only the feasible out
+ *     edges of branches (according to the constants of their conditions)
+ *     are followed, so the facts from unreachable branches never flow
+ *     into join points.</li>
+ *     <li>Liveness is computed only if some reachable assignment may be
+ *     dead, and only on the executable edges, with {@link BitSet}s over
+ *     variable indexes.</li>
+ * </ol>
+ * All intermediate results are sets of statement (or variable) indexes,
+ * and the constant facts are discarded after the first phase.
+ * As unreachable code is excluded, the result may contain more dead
+ * assignments than the one of {@link DeadCodeDetection}.
+ * <p>
+ * For this algorithm, dead code detection does not require constant
+ * propagation and live variable analysis (see tai-e-analyses.yml),
+ * so they are not run unless they are given in the analysis plan.
+ */
+class FusedDeadCodeDetection {
+
+    private final CFG<Stmt> cfg;
+
+    private final ConstantPropagation cp;
+
+    /**
+     * Nodes of {@link #cfg}, indexed by {@link Stmt#getIndex()}.
+     */
+    private final Stmt[] nodes;
+
+    /**
+     * Indexes of reachable statements.
+     */
+    private final BitSet reachable = new BitSet();
+
+    /**
+     * Edges which may be executed.
+     */
+    private Set<Edge<Stmt>> executableEdges;
+
+    private FusedDeadCodeDetection(CFG<Stmt> cfg, ConstantPropagation cp) {
+        this.cfg = cfg;
+        this.cp = cp;
+        nodes = new Stmt[cfg.getNumberOfNodes()];
+        for (Stmt node : cfg) {
+            nodes[node.getIndex()] = node;
+        }
+    }
+
+    /**
+     * Detects dead code in given CFG.
+     *
+     * @param cp provides the lattice and transfer functions of constant
+     *           propagation
+     * @return the dead code, sorted by statement indexes.
+     */
+    static Set<Stmt> detect(CFG<Stmt> cfg, ConstantPropagation cp) {
+        FusedDeadCodeDetection detection = new FusedDeadCodeDetection(cfg, cp);
+        detection.propagateConstants();
+        BitSet dead = detection.findDeadAssignments();
+        // unreachable statements (except the exit) are dead
+        int nNodes = cfg.getNumberOfNodes();
+        BitSet unreachable = (BitSet) detection.reachable.clone();
+        unreachable.flip(0, nNodes);
+        unreachable.clear(cfg.getExit().getIndex());
+        dead.or(unreachable);
+        return dead.stream()
+                .mapToObj(i -> detection.nodes[i])
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Runs conditional constant propagation, and keeps only
+     * {@link #reachable} and {@link #executableEdges} of its result.
+     */
+    private void propagateConstants() {
+        ConditionalConstantPropagation.Result result =
+                ConditionalConstantPropagation.solve(cfg, cp);
+        for (Stmt node : nodes) {
+            if (result.isReachable(node)) {
+                reachable.set(node.getIndex());
+            }
+        }
+        // copy the edges, so that the facts of the result can be released
+        executableEdges = Sets.newSet(result.getExecutableEdges().size());
+        executableEdges.addAll(result.getExecutableEdges());
+    }
+
+    /**
+     * Computes liveness on the executable edges on demand, i.e., only if
+     * there are reachable assignments which may be dead.
+     *
+     * @return the indexes of the dead assignments.
+     */
+    private BitSet findDeadAssignments() {
+        BitSet candidates = new BitSet();
+        reachable.stream().forEach(i -> {
+            if (nodes[i] instanceof AssignStmt<?, ?> assign
+                    && assign.getLValue() instanceof Var
+                    && DeadCodeDetection.hasNoSideEffect(assign.getRValue())) {
+                candidates.set(i);
+            }
+        });
+        BitSet dead = new BitSet();
+        if (candidates.isEmpty()) {
+            return dead;
+        }
+        BitSet[] liveIns = computeLiveIns();
+        candidates.stream().forEach(i -> {
+            Stmt stmt = nodes[i];
+            Var lhs = (Var) ((AssignStmt<?, ?>) stmt).getLValue();
+            if (!computeLiveOut(stmt, liveIns).get(lhs.getIndex())) {
+                dead.set(i);
+            }
+        });
+        return dead;
+    }
+
+    /**
+     * Computes the live variables before each reachable statement
+     * by a backward work-list on the executable edges.
+     *
+     * @return the live-in variables (as sets of variable indexes),
+     * indexed by statement indexes; null for unreachable statements.
+     */
+    private BitSet[] computeLiveIns() {
+        BitSet[] liveIns = new BitSet[cfg.getNumberOfNodes()];
+        Deque<Stmt> workList = new ArrayDeque<>();
+        BitSet inWorkList = (BitSet) reachable.clone();
+        // visit the statements in reverse order of indexes first,
+        // which roughly follows the backward flow
+        for (int i = reachable.length() - 1; i >= 0;
+             i = reachable.previousSetBit(i - 1)) {
+            liveIns[i] = new BitSet();
+            workList.add(nodes[i]);
+        }
+        while (!workList.isEmpty()) {
+            Stmt stmt = workList.poll();
+            inWorkList.clear(stmt.getIndex());
+            BitSet liveIn = computeLiveOut(stmt, liveIns);
+            stmt.getDef().ifPresent(def -> {
+                if (def instanceof Var var) {
+                    liveIn.clear(var.getIndex());
+                }
+            });
+            for (RValue use : stmt.getUses()) {
+                if (use instanceof Var var) {
+                    liveIn.set(var.getIndex());
+                }
+            }
+            if (!liveIn.equals(liveIns[stmt.getIndex()])) {
+                liveIns[stmt.getIndex()] = liveIn;
+                for (Edge<Stmt> edge : cfg.getInEdgesOf(stmt)) {
+                    Stmt pred = edge.getSource();
+                    if (executableEdges.contains(edge)
+                            && !inWorkList.get(pred.getIndex())) {
+                        workList.add(pred);
+                        inWorkList.set(pred.getIndex());
+                    }
+                }
+            }
+        }
+        return liveIns;
+    }
+
+    /**
+     * @return the live variables after given statement, i.e., the union
+     * of the live-in variables of its successors on executable edges.
+     */
+    private BitSet computeLiveOut(Stmt stmt, BitSet[] liveIns) {
+        BitSet liveOut = new BitSet();
+        for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+            if (executableEdges.contains(edge)) {
+                liveOut.or(liveIns[edge.getTarget().getIndex()]);
+            }
+        }
+        return liveOut;
+    }
+}
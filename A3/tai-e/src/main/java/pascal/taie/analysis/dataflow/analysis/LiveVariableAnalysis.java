@@ -22,14 +22,19 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.RValue;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Optional;
 
 /**
@@ -40,8 +45,15 @@ public class LiveVariableAnalysis extends
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether use {@link BitSetFact} (keyed by variable indexes)
+     * to represent the data-flow facts.
+     */
+    private final boolean useBitSet;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        useBitSet = "bitset".equals(getOptions().getString("fact"));
     }
 
     @Override
@@ -52,13 +64,40 @@ public class LiveVariableAnalysis extends
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        return new SetFact<>();
+        return newFact();
     }
 
     @Override
     public SetFact<Var> newInitialFact() {
         // TODO - finish me
-        return new SetFact<>();
+        return newFact();
+    }
+
+    private SetFact<Var> newFact() {
+        return useBitSet ? new BitSetFact<>() : new SetFact<>();
+    }
+
+    @Override
+    protected boolean supportsCache() {
+        return true;
+    }
+
+    @Override
+    protected void encodeFact(SetFact<Var> fact, DataOutput out) throws IOException {
+        out.writeInt(fact.size());
+        for (Var var : (Iterable<Var>) fact.stream()::iterator) {
+            out.writeInt(var.getIndex());
+        }
+    }
+
+    @Override
+    protected SetFact<Var> decodeFact(IR ir, DataInput in) throws IOException {
+        SetFact<Var> fact = newFact();
+        int size = in.readInt();
+        for (int i = 0; i < size; ++i) {
+            fact.add(ir.getVar(in.readInt()));
+        }
+        return fact;
     }
 
     @Override
@@ -83,6 +122,6 @@ public class LiveVariableAnalysis extends
                 in.add((Var) uses);
             }
         }
-        return in.equals(preIn);
+        return !in.equals(preIn);
     }
 }
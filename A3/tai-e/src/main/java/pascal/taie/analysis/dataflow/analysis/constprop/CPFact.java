@@ -69,6 +69,26 @@ public class CPFact extends MapFact<Var, Value> {
         }
     }
 
+    /**
+     * Copies the content from given fact to this fact, as if the value of
+     * {@code key} in given fact were {@code value}. This avoids making
+     * a temporary copy of given fact when transferring definitions.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean copyFrom(CPFact fact, Var key, Value value) {
+        boolean changed = false;
+        for (Var var : fact.keySet()) {
+            if (!var.equals(key)) {
+                changed |= update(var, fact.get(var));
+            }
+        }
+        if (!value.isUndef()) {
+            changed |= update(key, value);
+        }
+        return changed;
+    }
+
     @Override
     public CPFact copy() {
         return new CPFact(this.map);
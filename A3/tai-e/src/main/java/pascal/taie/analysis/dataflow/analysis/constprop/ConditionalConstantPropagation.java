@@ -0,0 +1,205 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+
+/**
+ * Conditional constant propagation (in the style of sparse conditional
+ * constant propagation, by Wegman and Zadeck), which computes constants
+ * and reachability together: the conditions of {@link If} and
+ * {@link SwitchStmt} are evaluated (via
+ * {@link ConstantPropagation#evaluate}) while solving, and only the
+ * feasible out edges of branches are followed. Thus, the facts from
+ * unreachable branches are never propagated, nor met into join points.
+ * <p>
+ * The facts of unreachable statements are empty, i.e., all variables
+ * are UNDEF, and the executable edges are available from the result.
+ */
+public class ConditionalConstantPropagation {
+
+    private final CFG<Stmt> cfg;
+
+    private final ConstantPropagation cp;
+
+    /**
+     * Flowing-in facts, indexed by {@link Stmt#getIndex()};
+     * null for unreachable statements.
+     */
+    private final CPFact[] inFacts;
+
+    private final Set<Edge<Stmt>> executableEdges = Sets.newSet();
+
+    private ConditionalConstantPropagation(CFG<Stmt> cfg, ConstantPropagation cp) {
+        this.cfg = cfg;
+        this.cp = cp;
+        this.inFacts = new CPFact[cfg.getNumberOfNodes()];
+    }
+
+    /**
+     * Solves conditional constant propagation for given CFG.
+     *
+     * @param cp provides the lattice and transfer functions
+     */
+    public static Result solve(CFG<Stmt> cfg, ConstantPropagation cp) {
+        return new ConditionalConstantPropagation(cfg, cp).doSolve();
+    }
+
+    private Result doSolve() {
+        Deque<Stmt> workList = new ArrayDeque<>();
+        BitSet inWorkList = new BitSet(cfg.getNumberOfNodes());
+        Stmt entry = cfg.getEntry();
+        inFacts[entry.getIndex()] = cp.newBoundaryFact(cfg);
+        workList.add(entry);
+        inWorkList.set(entry.getIndex());
+        while (!workList.isEmpty()) {
+            Stmt stmt = workList.poll();
+            inWorkList.clear(stmt.getIndex());
+            CPFact in = inFacts[stmt.getIndex()];
+            CPFact out = cp.newInitialFact();
+            cp.transferNode(stmt, in, out);
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                if (!isFeasible(edge, in)) {
+                    continue;
+                }
+                executableEdges.add(edge);
+                int target = edge.getTarget().getIndex();
+                boolean changed;
+                if (inFacts[target] == null) {
+                    inFacts[target] = out.copy();
+                    changed = true;
+                } else {
+                    changed = meetInto(out, inFacts[target]);
+                }
+                if (changed && !inWorkList.get(target)) {
+                    workList.add(edge.getTarget());
+                    inWorkList.set(target);
+                }
+            }
+        }
+        return new Result();
+    }
+
+    /**
+     * Meets {@code fact} into {@code target}.
+     *
+     * @return if {@code target} changed.
+     */
+    private boolean meetInto(CPFact fact, CPFact target) {
+        boolean changed = false;
+        for (Var var : fact.keySet()) {
+            changed |= target.update(var,
+                    cp.meetValue(fact.get(var), target.get(var)));
+        }
+        return changed;
+    }
+
+    /**
+     * @return if given out edge of a statement may be executed when
+     * the flowing-in fact of the statement is {@code in}. A branch whose
+     * condition is not a constant may go to any of its targets.
+     */
+    private static boolean isFeasible(Edge<Stmt> edge, CPFact in) {
+        Stmt stmt = edge.getSource();
+        if (stmt instanceof If ifStmt) {
+            Value cond = ConstantPropagation.evaluate(ifStmt.getCondition(), in);
+            if (cond.isConstant()) {
+                return edge.getKind() == (cond.getConstant() == 1 ?
+                        Edge.Kind.IF_TRUE : Edge.Kind.IF_FALSE);
+            }
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            Value value = ConstantPropagation.evaluate(switchStmt.getVar(), in);
+            if (value.isConstant()) {
+                int c = value.getConstant();
+                if (switchStmt.getCaseValues().contains(c)) {
+                    return edge.isSwitchCase() && edge.getCaseValue() == c;
+                } else {
+                    return edge.getKind() == Edge.Kind.SWITCH_DEFAULT;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Result of conditional constant propagation. It keeps only the
+     * flowing-in facts, and the flowing-out facts are recomputed by
+     * the transfer functions on query.
+     */
+    public class Result implements NodeResult<Stmt, CPFact> {
+
+        private Result() {
+        }
+
+        @Override
+        public CPFact getInFact(Stmt node) {
+            CPFact in = inFacts[node.getIndex()];
+            return in != null ? in : cp.newInitialFact();
+        }
+
+        @Override
+        public CPFact getOutFact(Stmt node) {
+            CPFact out = cp.newInitialFact();
+            CPFact in = inFacts[node.getIndex()];
+            if (in != null) {
+                cp.transferNode(node, in, out);
+            }
+            return out;
+        }
+
+        /**
+         * @return if given node is reachable from the entry
+         * via executable edges.
+         */
+        public boolean isReachable(Stmt node) {
+            return inFacts[node.getIndex()] != null;
+        }
+
+        /**
+         * @return if given edge may be executed.
+         */
+        public boolean isExecutable(Edge<Stmt> edge) {
+            return executableEdges.contains(edge);
+        }
+
+        /**
+         * @return all executable edges.
+         */
+        public Set<Edge<Stmt>> getExecutableEdges() {
+            return Collections.unmodifiableSet(executableEdges);
+        }
+    }
+}
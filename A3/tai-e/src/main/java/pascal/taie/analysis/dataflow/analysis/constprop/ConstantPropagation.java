@@ -23,7 +23,9 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
@@ -33,12 +35,79 @@ import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 public class ConstantPropagation extends AbstractDataflowAnalysis<Stmt, CPFact> {
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether use {@link PackedCPFact} to represent the data-flow facts.
+     */
+    private final boolean usePackedFact;
+
+    /**
+     * Whether use {@link SparseConstantPropagation} instead of
+     * the data-flow solver.
+     */
+    private final boolean isSparse;
+
+    /**
+     * Whether use {@link ConditionalConstantPropagation} instead of
+     * the data-flow solver.
+     */
+    private final boolean isConditional;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        usePackedFact = "packed".equals(getOptions().getString("fact"));
+        String algorithm = getOptions().getString("algorithm");
+        isSparse = "sparse".equals(algorithm);
+        isConditional = "conditional".equals(algorithm);
+    }
+
+    @Override
+    protected NodeResult<Stmt, CPFact> solve(IR ir) {
+        if (isSparse) {
+            return SparseConstantPropagation.solve(ir.getResult(CFGBuilder.ID));
+        }
+        if (isConditional) {
+            return ConditionalConstantPropagation.solve(
+                    ir.getResult(CFGBuilder.ID), this);
+        }
+        return super.solve(ir);
+    }
+
+    @Override
+    protected boolean supportsCache() {
+        return true;
+    }
+
+    @Override
+    protected void encodeFact(CPFact fact, DataOutput out) throws IOException {
+        out.writeInt(fact.keySet().size());
+        for (Var var : fact.keySet()) {
+            Value value = fact.get(var);
+            out.writeInt(var.getIndex());
+            out.writeBoolean(value.isConstant());
+            if (value.isConstant()) {
+                out.writeInt(value.getConstant());
+            }
+        }
+    }
+
+    @Override
+    protected CPFact decodeFact(IR ir, DataInput in) throws IOException {
+        CPFact fact = newInitialFact();
+        int size = in.readInt();
+        for (int i = 0; i < size; ++i) {
+            Var var = ir.getVar(in.readInt());
+            fact.update(var, in.readBoolean() ?
+                    Value.makeConstant(in.readInt()) : Value.getNAC());
+        }
+        return fact;
     }
 
     @Override
@@ -49,7 +118,7 @@ public class ConstantPropagation extends AbstractDataflowAnalysis<Stmt, CPFact>
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        CPFact fact = new CPFact();
+        CPFact fact = newInitialFact();
         for (Var var : cfg.getIR().getParams()) {
             if (canHoldInt(var)) {
                 fact.update(var, Value.getNAC());
@@ -61,12 +130,17 @@ public class ConstantPropagation extends AbstractDataflowAnalysis<Stmt, CPFact>
     @Override
     public CPFact newInitialFact() {
         // TODO - finish me
-        return new CPFact();
+        return usePackedFact ? new PackedCPFact() : new CPFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
+        if (fact instanceof PackedCPFact packed
+                && target instanceof PackedCPFact packedTarget) {
+            packedTarget.meetFrom(packed);
+            return;
+        }
         for (Var var : fact.keySet()) {
             target.update(var, meetValue(fact.get(var), target.get(var)));
         }
@@ -103,9 +177,7 @@ public class ConstantPropagation extends AbstractDataflowAnalysis<Stmt, CPFact>
             LValue lvalue = definitionStmt.getLValue();
             RValue rvalue = definitionStmt.getRValue();
             if (lvalue instanceof Var var && canHoldInt(var)) {
-                CPFact inCopy = in.copy();
-                inCopy.update(var, evaluate(rvalue, in));
-                return out.copyFrom(inCopy);
+                return out.copyFrom(in, var, evaluate(rvalue, in));
             }
         }
         return out.copyFrom(in);
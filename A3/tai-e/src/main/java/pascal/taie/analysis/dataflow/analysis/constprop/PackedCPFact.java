@@ -0,0 +1,327 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Array-backed {@link CPFact}, which encodes the lattice value of each
+ * variable in a {@code long} and stores it at the index of the variable,
+ * so that meet, copy and change detection do not create {@link Value}s.
+ * <p>
+ * The variables in the same fact must come from the same method, as
+ * their indexes are only unique within a method.
+ */
+public class PackedCPFact extends CPFact {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // encoding of lattice values: high 32 bits for kind, low 32 bits
+    // for constant. UNDEF is 0, so that absent variables are UNDEF.
+    private static final long UNDEF = 0L;
+
+    private static final long CONSTANT = 1L << 32;
+
+    private static final long NAC = 2L << 32;
+
+    private static final long KIND_MASK = 0xffffffff00000000L;
+
+    private long[] values;
+
+    /**
+     * Maps indexes to the variables. As an index always denotes the same
+     * variable, this table is shared among facts and only grows in place.
+     */
+    private Var[] vars;
+
+    public PackedCPFact() {
+        this(new long[0], null);
+    }
+
+    private PackedCPFact(long[] values, Var[] vars) {
+        this.values = values;
+        this.vars = vars;
+    }
+
+    private static long encode(Value value) {
+        if (value.isConstant()) {
+            return CONSTANT | (value.getConstant() & 0xffffffffL);
+        } else if (value.isNAC()) {
+            return NAC;
+        } else {
+            return UNDEF;
+        }
+    }
+
+    private static Value decode(long value) {
+        return switch ((int) ((value & KIND_MASK) >>> 32)) {
+            case 0 -> Value.getUndef();
+            case 1 -> Value.makeConstant((int) value);
+            default -> Value.getNAC();
+        };
+    }
+
+    /**
+     * Meets two encoded values, same as
+     * {@link ConstantPropagation#meetValue(Value, Value)}.
+     */
+    private static long meet(long v1, long v2) {
+        if (v1 == v2 || v2 == UNDEF) {
+            return v1;
+        } else if (v1 == UNDEF) {
+            return v2;
+        } else {
+            return NAC;
+        }
+    }
+
+    private long getValue(int index) {
+        return index < values.length ? values[index] : UNDEF;
+    }
+
+    private void ensureCapacity(int length) {
+        if (length > values.length) {
+            values = Arrays.copyOf(values,
+                    Math.max(length, Math.max(values.length * 2, DEFAULT_CAPACITY)));
+        }
+    }
+
+    private void putVar(int index, Var var) {
+        if (vars == null) {
+            vars = new Var[Math.max(index + 1, values.length)];
+        } else if (index >= vars.length) {
+            vars = Arrays.copyOf(vars, Math.max(index + 1, vars.length * 2));
+        }
+        vars[index] = var;
+    }
+
+    /**
+     * Makes sure that the variables of given fact can be looked up
+     * from the variable table of this fact.
+     */
+    private void mergeVars(PackedCPFact other) {
+        if (vars == other.vars || other.vars == null) {
+            return;
+        }
+        if (vars == null) {
+            vars = other.vars;
+            return;
+        }
+        long[] otherValues = other.values;
+        for (int i = 0; i < otherValues.length; ++i) {
+            if (otherValues[i] != UNDEF &&
+                    (i >= vars.length || vars[i] == null)) {
+                putVar(i, other.vars[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the indexes of the variables which are not UNDEF in this fact.
+     */
+    private IntStream indexes() {
+        return IntStream.range(0, values.length)
+                .filter(i -> values[i] != UNDEF);
+    }
+
+    @Override
+    public Value get(Var key) {
+        return decode(getValue(key.getIndex()));
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        return set(key, encode(value));
+    }
+
+    private boolean set(Var key, long value) {
+        int index = key.getIndex();
+        if (getValue(index) == value) {
+            return false;
+        }
+        if (value != UNDEF) {
+            ensureCapacity(index + 1);
+            putVar(index, key);
+        }
+        values[index] = value;
+        return true;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        int index = key.getIndex();
+        long value = getValue(index);
+        if (value == UNDEF) {
+            return null;
+        }
+        values[index] = UNDEF;
+        return decode(value);
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof PackedCPFact that) {
+            return copyValuesFrom(that, -1);
+        }
+        return super.copyFrom(fact);
+    }
+
+    @Override
+    public boolean copyFrom(CPFact fact, Var key, Value value) {
+        if (fact instanceof PackedCPFact that) {
+            boolean changed = copyValuesFrom(that, key.getIndex());
+            if (!value.isUndef()) {
+                changed |= update(key, value);
+            }
+            return changed;
+        }
+        return super.copyFrom(fact, key, value);
+    }
+
+    /**
+     * Copies the non-UNDEF values of given fact, except the one at
+     * {@code skip}, to this fact.
+     */
+    private boolean copyValuesFrom(PackedCPFact fact, int skip) {
+        long[] src = fact.values;
+        ensureCapacity(src.length);
+        mergeVars(fact);
+        boolean changed = false;
+        for (int i = 0; i < src.length; ++i) {
+            long v = src[i];
+            if (v != UNDEF && i != skip && values[i] != v) {
+                values[i] = v;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Meets given fact into this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    boolean meetFrom(PackedCPFact fact) {
+        long[] src = fact.values;
+        ensureCapacity(src.length);
+        mergeVars(fact);
+        boolean changed = false;
+        for (int i = 0; i < src.length; ++i) {
+            long v = src[i];
+            if (v != UNDEF) {
+                long old = values[i];
+                long result = meet(v, old);
+                if (result != old) {
+                    values[i] = result;
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public PackedCPFact copy() {
+        return new PackedCPFact(values.clone(), vars);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, UNDEF);
+    }
+
+    @Override
+    public Set<Var> keySet() {
+        Set<Var> keys = Sets.newHybridSet();
+        indexes().forEach(i -> keys.add(vars[i]));
+        return keys;
+    }
+
+    @Override
+    public int size() {
+        return (int) indexes().count();
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return indexes().mapToObj(i -> Map.entry(vars[i], decode(values[i])));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        indexes().forEach(i -> action.accept(vars[i], decode(values[i])));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PackedCPFact that)) {
+            return false;
+        }
+        long[] v1 = values, v2 = that.values;
+        int common = Math.min(v1.length, v2.length);
+        if (!Arrays.equals(v1, 0, common, v2, 0, common)) {
+            return false;
+        }
+        long[] longer = v1.length > common ? v1 : v2;
+        for (int i = common; i < longer.length; ++i) {
+            if (longer[i] != UNDEF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] != UNDEF) {
+                hash += i ^ Long.hashCode(values[i]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "{" + entries()
+                .sorted(Comparator.comparing(e -> e.getKey().toString()))
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", ")) + "}";
+    }
+}
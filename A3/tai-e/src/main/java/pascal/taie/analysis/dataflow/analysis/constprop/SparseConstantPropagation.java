@@ -0,0 +1,320 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation.canHoldInt;
+
+/**
+ * Sparse constant propagation, which propagates lattice values along
+ * def-use chains instead of through every statement of the CFG.
+ * <p>
+ * A definition is either a statement which defines an int variable,
+ * or the definition of an int parameter at the entry of the CFG (whose
+ * value is always NAC). The def-use chains are built by searching the
+ * definitions of the variables used by each definition backward on
+ * the CFG, and then the value of each definition is computed by
+ * a work-list over definitions, i.e., a definition is re-evaluated only
+ * when the value of some definition reaching its operands changes.
+ * The result keeps only the values of definitions, and the fact of
+ * a statement is reconstructed on query by the same backward search,
+ * thus the memory of the result is proportional to the number of
+ * definitions rather than statements &times; variables.
+ * <p>
+ * This analysis computes the same result as the dense one, except
+ * that the two may differ when the order of evaluation matters, i.e.,
+ * for divisions whose divisor becomes 0 after its dividend becomes NAC
+ * (as {@code NAC / UNDEF} is NAC, but {@code NAC / 0} is UNDEF).
+ */
+class SparseConstantPropagation {
+
+    private final CFG<Stmt> cfg;
+
+    /**
+     * The statement (or the entry node for parameters) of each definition.
+     */
+    private final List<Stmt> defStmts = new ArrayList<>();
+
+    /**
+     * The variable defined by each definition.
+     */
+    private final List<Var> defVars = new ArrayList<>();
+
+    /**
+     * The index of each variable which has definitions.
+     */
+    private final Map<Var, Integer> varIds = new LinkedHashMap<>();
+
+    /**
+     * The definition of each statement (indexed by {@link Stmt#getIndex()}),
+     * or -1 if the statement does not define int variable.
+     */
+    private final int[] stmtDefs;
+
+    private SparseConstantPropagation(CFG<Stmt> cfg) {
+        this.cfg = cfg;
+        stmtDefs = new int[cfg.getNumberOfNodes()];
+        Arrays.fill(stmtDefs, -1);
+        IR ir = cfg.getIR();
+        for (Var param : ir.getParams()) {
+            if (canHoldInt(param)) {
+                addDef(cfg.getEntry(), param);
+            }
+        }
+        for (Stmt stmt : ir) {
+            if (stmt.getDef().orElse(null) instanceof Var var
+                    && canHoldInt(var)) {
+                stmtDefs[stmt.getIndex()] = addDef(stmt, var);
+            }
+        }
+    }
+
+    private int addDef(Stmt stmt, Var var) {
+        int def = defStmts.size();
+        defStmts.add(stmt);
+        defVars.add(var);
+        varIds.putIfAbsent(var, varIds.size());
+        return def;
+    }
+
+    /**
+     * Solves constant propagation for given CFG.
+     */
+    static NodeResult<Stmt, CPFact> solve(CFG<Stmt> cfg) {
+        return new SparseConstantPropagation(cfg).doSolve();
+    }
+
+    private Result doSolve() {
+        int nDefs = defStmts.size();
+        // build def-use chains: operands[d] maps each variable used by
+        // definition d to the definitions of the variable reaching d,
+        // and users[e] are the definitions using definition e.
+        List<Map<Var, BitSet>> operands = new ArrayList<>(nDefs);
+        List<List<Integer>> users = new ArrayList<>(nDefs);
+        for (int d = 0; d < nDefs; ++d) {
+            users.add(new ArrayList<>());
+        }
+        for (int d = 0; d < nDefs; ++d) {
+            Map<Var, BitSet> ops = Maps.newHybridMap();
+            Stmt stmt = defStmts.get(d);
+            if (stmt != cfg.getEntry()) {
+                BitSet usedVars = new BitSet();
+                for (RValue use : stmt.getUses()) {
+                    if (use instanceof Var var && varIds.containsKey(var)) {
+                        usedVars.set(varIds.get(var));
+                    }
+                }
+                BitSet reaching = findReachingDefs(stmt, usedVars);
+                for (int e = reaching.nextSetBit(0); e >= 0;
+                     e = reaching.nextSetBit(e + 1)) {
+                    ops.computeIfAbsent(defVars.get(e), v -> new BitSet()).set(e);
+                    users.get(e).add(d);
+                }
+            }
+            operands.add(ops);
+        }
+        // propagate values along def-use chains
+        Value[] values = new Value[nDefs];
+        Queue<Integer> workList = new SetQueue<>();
+        for (int d = 0; d < nDefs; ++d) {
+            values[d] = Value.getUndef();
+            workList.add(d);
+        }
+        while (!workList.isEmpty()) {
+            int d = workList.poll();
+            Value value = evaluate(d, operands.get(d), values);
+            // as in the dense analysis, an UNDEF result does not
+            // override the value of the definition
+            if (!value.isUndef() && !value.equals(values[d])) {
+                values[d] = value;
+                workList.addAll(users.get(d));
+            }
+        }
+        return new Result(values);
+    }
+
+    private Value evaluate(int def, Map<Var, BitSet> operands, Value[] values) {
+        Stmt stmt = defStmts.get(def);
+        if (stmt == cfg.getEntry()) {
+            return Value.getNAC();
+        }
+        CPFact in = new CPFact();
+        operands.forEach((var, defs) -> in.update(var, meet(defs, values)));
+        RValue rvalue = ((DefinitionStmt<?, ?>) stmt).getRValue();
+        return ConstantPropagation.evaluate(rvalue, in);
+    }
+
+    /**
+     * Searches the definitions of given variables reaching (the entry of)
+     * given node backward on the CFG. The search on a path stops for
+     * a variable at the first definition of the variable, thus each node
+     * is visited at most once for each variable.
+     *
+     * @param vars the indexes of the variables, see {@link #varIds}
+     * @return the definitions of the variables reaching the node.
+     */
+    private BitSet findReachingDefs(Stmt node, BitSet vars) {
+        BitSet defs = new BitSet();
+        if (vars.isEmpty()) {
+            return defs;
+        }
+        // the variables which have been searched at each node
+        BitSet[] visited = new BitSet[cfg.getNumberOfNodes()];
+        Deque<Stmt> nodes = new ArrayDeque<>();
+        Deque<BitSet> pending = new ArrayDeque<>();
+        for (Stmt pred : cfg.getPredsOf(node)) {
+            nodes.push(pred);
+            pending.push(vars);
+        }
+        while (!nodes.isEmpty()) {
+            Stmt pred = nodes.pop();
+            BitSet todo = (BitSet) pending.pop().clone();
+            int index = pred.getIndex();
+            if (visited[index] == null) {
+                visited[index] = new BitSet();
+            }
+            todo.andNot(visited[index]);
+            if (todo.isEmpty()) {
+                continue;
+            }
+            visited[index].or(todo);
+            if (cfg.isEntry(pred)) {
+                for (int d = 0; d < defStmts.size() &&
+                        defStmts.get(d) == pred; ++d) {
+                    if (todo.get(varIds.get(defVars.get(d)))) {
+                        defs.set(d);
+                    }
+                }
+                continue;
+            }
+            int def = stmtDefs[index];
+            if (def != -1) {
+                int var = varIds.get(defVars.get(def));
+                if (todo.get(var)) {
+                    defs.set(def);
+                    todo.clear(var);
+                }
+            }
+            if (!todo.isEmpty()) {
+                for (Stmt p : cfg.getPredsOf(pred)) {
+                    nodes.push(p);
+                    pending.push(todo);
+                }
+            }
+        }
+        return defs;
+    }
+
+    private static Value meet(BitSet defs, Value[] values) {
+        Value result = Value.getUndef();
+        for (int d = defs.nextSetBit(0); d >= 0; d = defs.nextSetBit(d + 1)) {
+            result = meetValue(result, values[d]);
+        }
+        return result;
+    }
+
+    private static Value meetValue(Value v1, Value v2) {
+        if (v1.isUndef()) {
+            return v2;
+        } else if (v2.isUndef()) {
+            return v1;
+        } else if (v1.equals(v2)) {
+            return v1;
+        } else {
+            return Value.getNAC();
+        }
+    }
+
+    /**
+     * Result of sparse constant propagation, which reconstructs the fact
+     * of a node from the values of the definitions reaching the node.
+     * Each query searches the reaching definitions of all variables
+     * at once, and the facts are not cached.
+     */
+    private class Result implements NodeResult<Stmt, CPFact> {
+
+        private final Value[] values;
+
+        /**
+         * The indexes of all variables which have definitions.
+         */
+        private final BitSet allVars = new BitSet();
+
+        private Result(Value[] values) {
+            this.values = values;
+            allVars.set(0, varIds.size());
+        }
+
+        @Override
+        public CPFact getInFact(Stmt node) {
+            if (cfg.isEntry(node)) {
+                return getOutFact(node);
+            }
+            CPFact fact = new CPFact();
+            BitSet defs = findReachingDefs(node, allVars);
+            for (int d = defs.nextSetBit(0); d >= 0; d = defs.nextSetBit(d + 1)) {
+                Var var = defVars.get(d);
+                fact.update(var, meetValue(fact.get(var), values[d]));
+            }
+            return fact;
+        }
+
+        @Override
+        public CPFact getOutFact(Stmt node) {
+            CPFact fact;
+            if (cfg.isEntry(node)) {
+                fact = new CPFact();
+                for (int d = 0; d < defStmts.size() &&
+                        defStmts.get(d) == node; ++d) {
+                    fact.update(defVars.get(d), values[d]);
+                }
+            } else {
+                fact = getInFact(node);
+                int def = stmtDefs[node.getIndex()];
+                if (def != -1) {
+                    fact.update(defVars.get(def), values[def]);
+                }
+            }
+            return fact;
+        }
+    }
+}
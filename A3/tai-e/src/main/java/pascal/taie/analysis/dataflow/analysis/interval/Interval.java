@@ -0,0 +1,217 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.interval;
+
+import pascal.taie.util.AnalysisException;
+
+/**
+ * Represents lattice values of interval analysis, i.e., the ranges
+ * [lower, upper] of the int values that a variable may hold.
+ * The bounds are int values, thus the full range is
+ * [{@link Integer#MIN_VALUE}, {@link Integer#MAX_VALUE}],
+ * and an empty interval means that no value has been seen.
+ */
+public class Interval {
+
+    /**
+     * The empty interval.
+     */
+    private static final Interval EMPTY = new Interval(1, 0);
+
+    /**
+     * The full interval.
+     */
+    private static final Interval FULL =
+            new Interval(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * Cache frequently used constant intervals for saving space.
+     */
+    private static final Interval[] constants = new Interval[256];
+
+    static {
+        for (int i = 0; i < constants.length; ++i) {
+            constants[i] = new Interval(i - 128, i - 128);
+        }
+    }
+
+    private final int lower;
+
+    private final int upper;
+
+    private Interval(int lower, int upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * @return the empty interval.
+     */
+    public static Interval getEmpty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the full interval.
+     */
+    public static Interval getFull() {
+        return FULL;
+    }
+
+    /**
+     * @return the interval which contains only given constant.
+     */
+    public static Interval makeConstant(int constant) {
+        return constant >= -128 && constant < 128 ?
+                constants[constant + 128] :
+                new Interval(constant, constant);
+    }
+
+    /**
+     * @return the interval [lower, upper], which is empty if lower > upper,
+     * and is full if any bound exceeds the range of int.
+     */
+    public static Interval of(long lower, long upper) {
+        if (lower > upper) {
+            return EMPTY;
+        }
+        if (lower < Integer.MIN_VALUE || upper > Integer.MAX_VALUE) {
+            return FULL;
+        }
+        if (lower == upper) {
+            return makeConstant((int) lower);
+        }
+        return new Interval((int) lower, (int) upper);
+    }
+
+    /**
+     * @return true if this interval is empty, otherwise false.
+     */
+    public boolean isEmpty() {
+        return lower > upper;
+    }
+
+    /**
+     * @return true if this interval is full, otherwise false.
+     */
+    public boolean isFull() {
+        return lower == Integer.MIN_VALUE && upper == Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return true if this interval contains exactly one value, otherwise false.
+     */
+    public boolean isConstant() {
+        return lower == upper;
+    }
+
+    /**
+     * @return the lower bound of this interval.
+     * @throws AnalysisException if this interval is empty
+     */
+    public int getLower() {
+        checkNotEmpty();
+        return lower;
+    }
+
+    /**
+     * @return the upper bound of this interval.
+     * @throws AnalysisException if this interval is empty
+     */
+    public int getUpper() {
+        checkNotEmpty();
+        return upper;
+    }
+
+    private void checkNotEmpty() {
+        if (isEmpty()) {
+            throw new AnalysisException(this + " has no bounds");
+        }
+    }
+
+    /**
+     * @return true if this interval contains given value, otherwise false.
+     */
+    public boolean contains(int value) {
+        return lower <= value && value <= upper;
+    }
+
+    /**
+     * Meets this interval with another one.
+     *
+     * @return the smallest interval which contains both intervals.
+     */
+    public Interval meet(Interval other) {
+        if (isEmpty()) {
+            return other;
+        }
+        if (other.isEmpty()) {
+            return this;
+        }
+        return of(Math.min(lower, other.lower), Math.max(upper, other.upper));
+    }
+
+    /**
+     * Widens this interval with a larger one: the bounds which are
+     * not stable are extrapolated to the bounds of int.
+     *
+     * @param next the interval which contains this interval
+     * @return the widened interval.
+     */
+    public Interval widen(Interval next) {
+        if (isEmpty()) {
+            return next;
+        }
+        if (next.isEmpty()) {
+            return this;
+        }
+        long newLower = next.lower < lower ? Integer.MIN_VALUE : lower;
+        long newUpper = next.upper > upper ? Integer.MAX_VALUE : upper;
+        return of(newLower, newUpper);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Interval interval)) {
+            return false;
+        }
+        return isEmpty() ? interval.isEmpty() :
+                lower == interval.lower && upper == interval.upper;
+    }
+
+    @Override
+    public int hashCode() {
+        return isEmpty() ? 0 : 31 * lower + upper;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "EMPTY";
+        }
+        return "[" + lower + ", " + upper + "]";
+    }
+}
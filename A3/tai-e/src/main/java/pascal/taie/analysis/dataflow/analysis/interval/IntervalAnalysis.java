@@ -0,0 +1,357 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.interval;
+
+import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+
+import static pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation.canHoldInt;
+
+/**
+ * Interval analysis, which computes the range of the int values that
+ * each variable may hold. As the lattice of intervals has infinite
+ * ascending chains, the solvers widen the facts at loop heads (see
+ * option "widening-delay" of {@link pascal.taie.analysis.dataflow.solver.Solver}),
+ * so that e.g., the interval of a loop counter becomes [0, MAX]
+ * instead of the analysis iterating through all of its values.
+ * <p>
+ * The int arithmetic in Java wraps around on overflow, thus the result
+ * of an operation is the full interval if it may overflow. The facts
+ * flowing along the edges of {@link If} are refined by the conditions,
+ * which keeps a loop counter bounded by the loop condition from
+ * overflowing, e.g., {@code i} is [0, MAX] after
+ * {@code for (i = 0; i < n; ++i)}.
+ */
+public class IntervalAnalysis extends AbstractDataflowAnalysis<Stmt, IntervalFact> {
+
+    public static final String ID = "interval";
+
+    public IntervalAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    public boolean isForward() {
+        return true;
+    }
+
+    @Override
+    public IntervalFact newBoundaryFact(CFG<Stmt> cfg) {
+        IntervalFact fact = newInitialFact();
+        for (Var var : cfg.getIR().getParams()) {
+            if (canHoldInt(var)) {
+                fact.update(var, Interval.getFull());
+            }
+        }
+        return fact;
+    }
+
+    @Override
+    public IntervalFact newInitialFact() {
+        return new IntervalFact();
+    }
+
+    @Override
+    public void meetInto(IntervalFact fact, IntervalFact target) {
+        for (Var var : fact.keySet()) {
+            target.update(var, target.get(var).meet(fact.get(var)));
+        }
+    }
+
+    @Override
+    public boolean needWidening() {
+        return true;
+    }
+
+    @Override
+    public void widenInto(IntervalFact fact, IntervalFact target) {
+        for (Var var : fact.keySet()) {
+            Interval old = target.get(var);
+            target.update(var, old.widen(old.meet(fact.get(var))));
+        }
+    }
+
+    @Override
+    public boolean needTransferEdge(Edge<Stmt> edge) {
+        return edge.getKind() == Edge.Kind.IF_TRUE ||
+                edge.getKind() == Edge.Kind.IF_FALSE;
+    }
+
+    /**
+     * Refines the intervals of the operands of the condition by the
+     * condition, which holds on the true edge and does not hold on
+     * the false edge. An operand becomes empty if the edge is infeasible.
+     */
+    @Override
+    public IntervalFact transferEdge(Edge<Stmt> edge, IntervalFact nodeFact) {
+        ConditionExp condition = ((If) edge.getSource()).getCondition();
+        Var v1 = condition.getOperand1(), v2 = condition.getOperand2();
+        if (!canHoldInt(v1) || !canHoldInt(v2)) {
+            return nodeFact;
+        }
+        Interval i1 = nodeFact.get(v1), i2 = nodeFact.get(v2);
+        if (i1.isEmpty() || i2.isEmpty()) {
+            return nodeFact;
+        }
+        ConditionExp.Op op = edge.getKind() == Edge.Kind.IF_TRUE ?
+                condition.getOperator() : negate(condition.getOperator());
+        long l1 = i1.getLower(), u1 = i1.getUpper();
+        long l2 = i2.getLower(), u2 = i2.getUpper();
+        IntervalFact fact = nodeFact.copy();
+        switch (op) {
+            case EQ -> {
+                Interval i = Interval.of(Math.max(l1, l2), Math.min(u1, u2));
+                fact.update(v1, i);
+                fact.update(v2, i);
+            }
+            case NE -> {
+                fact.update(v1, exclude(i1, i2));
+                fact.update(v2, exclude(i2, i1));
+            }
+            case LT -> {
+                fact.update(v1, Interval.of(l1, Math.min(u1, u2 - 1)));
+                fact.update(v2, Interval.of(Math.max(l2, l1 + 1), u2));
+            }
+            case LE -> {
+                fact.update(v1, Interval.of(l1, Math.min(u1, u2)));
+                fact.update(v2, Interval.of(Math.max(l2, l1), u2));
+            }
+            case GT -> {
+                fact.update(v1, Interval.of(Math.max(l1, l2 + 1), u1));
+                fact.update(v2, Interval.of(l2, Math.min(u2, u1 - 1)));
+            }
+            case GE -> {
+                fact.update(v1, Interval.of(Math.max(l1, l2), u1));
+                fact.update(v2, Interval.of(l2, Math.min(u2, u1)));
+            }
+        }
+        return fact;
+    }
+
+    private static ConditionExp.Op negate(ConditionExp.Op op) {
+        return switch (op) {
+            case EQ -> ConditionExp.Op.NE;
+            case NE -> ConditionExp.Op.EQ;
+            case LT -> ConditionExp.Op.GE;
+            case GT -> ConditionExp.Op.LE;
+            case LE -> ConditionExp.Op.GT;
+            case GE -> ConditionExp.Op.LT;
+        };
+    }
+
+    /**
+     * @return the interval {@code i} without the value of {@code other},
+     * if the value is constant and one of the bounds of {@code i}.
+     */
+    private static Interval exclude(Interval i, Interval other) {
+        if (!other.isConstant()) {
+            return i;
+        }
+        long l = i.getLower(), u = i.getUpper();
+        int c = other.getLower();
+        return Interval.of(l == c ? l + 1 : l, u == c ? u - 1 : u);
+    }
+
+    @Override
+    public boolean transferNode(Stmt stmt, IntervalFact in, IntervalFact out) {
+        if (stmt instanceof DefinitionStmt<?, ?> definitionStmt) {
+            LValue lvalue = definitionStmt.getLValue();
+            RValue rvalue = definitionStmt.getRValue();
+            if (lvalue instanceof Var var && canHoldInt(var)) {
+                return out.copyFrom(in, var, evaluate(rvalue, in));
+            }
+        }
+        return out.copyFrom(in);
+    }
+
+    /**
+     * Evaluates the {@link Interval} of given expression.
+     *
+     * @param exp the expression to be evaluated
+     * @param in  IN fact of the statement
+     * @return the resulting {@link Interval}
+     */
+    public static Interval evaluate(Exp exp, IntervalFact in) {
+        if (exp instanceof IntLiteral intLiteral) {
+            return Interval.makeConstant(intLiteral.getValue());
+        }
+        if (exp instanceof Var var) {
+            return canHoldInt(var) ? in.get(var) : Interval.getFull();
+        }
+        if (exp instanceof BinaryExp binaryExp) {
+            Interval i1 = evaluate(binaryExp.getOperand1(), in);
+            Interval i2 = evaluate(binaryExp.getOperand2(), in);
+            if (i1.isEmpty() || i2.isEmpty()) {
+                return Interval.getEmpty();
+            }
+            BinaryExp.Op op = binaryExp.getOperator();
+            if (op instanceof ArithmeticExp.Op arithmeticOp) {
+                return evaluateArithmetic(arithmeticOp, i1, i2);
+            } else if (op instanceof ConditionExp.Op conditionOp) {
+                return evaluateCondition(conditionOp, i1, i2);
+            } else if (op instanceof BitwiseExp.Op bitwiseOp) {
+                return evaluateBitwise(bitwiseOp, i1, i2);
+            } else if (op instanceof ShiftExp.Op shiftOp
+                    && i1.isConstant() && i2.isConstant()) {
+                int n1 = i1.getLower(), n2 = i2.getLower();
+                return Interval.makeConstant(switch (shiftOp) {
+                    case SHL -> n1 << n2;
+                    case SHR -> n1 >> n2;
+                    case USHR -> n1 >>> n2;
+                });
+            }
+        }
+        return Interval.getFull();
+    }
+
+    private static Interval evaluateArithmetic(
+            ArithmeticExp.Op op, Interval i1, Interval i2) {
+        long l1 = i1.getLower(), u1 = i1.getUpper();
+        long l2 = i2.getLower(), u2 = i2.getUpper();
+        switch (op) {
+            case ADD -> {
+                return Interval.of(l1 + l2, u1 + u2);
+            }
+            case SUB -> {
+                return Interval.of(l1 - u2, u1 - l2);
+            }
+            case MUL -> {
+                return hull(l1 * l2, l1 * u2, u1 * l2, u1 * u2);
+            }
+            case DIV -> {
+                // division is monotone in each operand when the sign of
+                // the divisor is fixed, thus we evaluate the negative
+                // and positive parts of the divisor separately
+                Interval result = Interval.getEmpty();
+                if (l2 < 0) {
+                    long u = Math.min(u2, -1);
+                    result = result.meet(hull(l1 / l2, l1 / u, u1 / l2, u1 / u));
+                }
+                if (u2 > 0) {
+                    long l = Math.max(l2, 1);
+                    result = result.meet(hull(l1 / l, l1 / u2, u1 / l, u1 / u2));
+                }
+                // empty if the divisor is 0, i.e., always throws exception
+                return result;
+            }
+            case REM -> {
+                if (l2 == 0 && u2 == 0) {
+                    return Interval.getEmpty();
+                }
+                if (i1.isConstant() && i2.isConstant()) {
+                    return Interval.makeConstant((int) (l1 % l2));
+                }
+                // |x % y| < |y| and |x % y| <= |x|,
+                // and the sign of x % y is the sign of x
+                long bound = Math.max(Math.abs(l2), Math.abs(u2)) - 1;
+                return Interval.of(l1 < 0 ? Math.max(-bound, l1) : 0,
+                        u1 > 0 ? Math.min(bound, u1) : 0);
+            }
+        }
+        return Interval.getFull();
+    }
+
+    private static Interval hull(long n1, long n2, long n3, long n4) {
+        return Interval.of(Math.min(Math.min(n1, n2), Math.min(n3, n4)),
+                Math.max(Math.max(n1, n2), Math.max(n3, n4)));
+    }
+
+    /**
+     * @return [1, 1] if the condition always holds, [0, 0] if it never
+     * holds, and [0, 1] otherwise.
+     */
+    private static Interval evaluateCondition(
+            ConditionExp.Op op, Interval i1, Interval i2) {
+        int l1 = i1.getLower(), u1 = i1.getUpper();
+        int l2 = i2.getLower(), u2 = i2.getUpper();
+        boolean isTrue, isFalse;
+        switch (op) {
+            case EQ -> {
+                isTrue = i1.isConstant() && i1.equals(i2);
+                isFalse = u1 < l2 || u2 < l1;
+            }
+            case NE -> {
+                isTrue = u1 < l2 || u2 < l1;
+                isFalse = i1.isConstant() && i1.equals(i2);
+            }
+            case LT -> {
+                isTrue = u1 < l2;
+                isFalse = l1 >= u2;
+            }
+            case LE -> {
+                isTrue = u1 <= l2;
+                isFalse = l1 > u2;
+            }
+            case GT -> {
+                isTrue = l1 > u2;
+                isFalse = u1 <= l2;
+            }
+            case GE -> {
+                isTrue = l1 >= u2;
+                isFalse = u1 < l2;
+            }
+            default -> {
+                isTrue = isFalse = false;
+            }
+        }
+        return Interval.of(isTrue ? 1 : 0, isFalse ? 0 : 1);
+    }
+
+    private static Interval evaluateBitwise(
+            BitwiseExp.Op op, Interval i1, Interval i2) {
+        if (i1.isConstant() && i2.isConstant()) {
+            int n1 = i1.getLower(), n2 = i2.getLower();
+            return Interval.makeConstant(switch (op) {
+                case OR -> n1 | n2;
+                case AND -> n1 & n2;
+                case XOR -> n1 ^ n2;
+            });
+        }
+        if (op == BitwiseExp.Op.AND) {
+            // x & y is in [0, y] if y >= 0 (and vice versa)
+            if (i1.getLower() >= 0 && i2.getLower() >= 0) {
+                return Interval.of(0, Math.min(i1.getUpper(), i2.getUpper()));
+            } else if (i1.getLower() >= 0) {
+                return Interval.of(0, i1.getUpper());
+            } else if (i2.getLower() >= 0) {
+                return Interval.of(0, i2.getUpper());
+            }
+        }
+        return Interval.getFull();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.interval;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.Var;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Represents data facts of interval analysis, which maps variables
+ * to their intervals.
+ * <p>
+ * As in {@link pascal.taie.analysis.dataflow.analysis.constprop.CPFact},
+ * we use absence to represent the empty interval, i.e., setting the
+ * interval of a variable to empty removes the variable from the fact.
+ */
+public class IntervalFact extends MapFact<Var, Interval> {
+
+    public IntervalFact() {
+        this(Collections.emptyMap());
+    }
+
+    private IntervalFact(Map<Var, Interval> map) {
+        super(map);
+    }
+
+    /**
+     * @return the interval of given variable in this fact,
+     * or the empty interval if the variable is absent in this fact.
+     */
+    @Override
+    public Interval get(Var key) {
+        return map.getOrDefault(key, Interval.getEmpty());
+    }
+
+    @Override
+    public boolean update(Var key, Interval value) {
+        if (value.isEmpty()) {
+            return remove(key) != null;
+        } else {
+            return super.update(key, value);
+        }
+    }
+
+    /**
+     * Copies the content from given fact to this fact, as if the interval
+     * of {@code key} in given fact were {@code value}.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean copyFrom(IntervalFact fact, Var key, Interval value) {
+        boolean changed = false;
+        for (Var var : fact.keySet()) {
+            if (!var.equals(key)) {
+                changed |= update(var, fact.get(var));
+            }
+        }
+        if (!value.isEmpty()) {
+            changed |= update(key, value);
+        }
+        return changed;
+    }
+
+    @Override
+    public IntervalFact copy() {
+        return new IntervalFact(this.map);
+    }
+}
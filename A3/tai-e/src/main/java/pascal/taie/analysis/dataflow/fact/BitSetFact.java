@@ -0,0 +1,237 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Streams;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Represents set-like data-flow facts of {@link Indexable} elements.
+ * The elements are kept in a dense {@link BitSet} keyed by their indexes,
+ * so that union, intersection, copy and equality work on whole words
+ * instead of hashed objects.
+ * <p>
+ * The indexes of all elements that may appear in the same fact must be
+ * distinct, e.g., the {@link pascal.taie.ir.exp.Var}s of one method.
+ *
+ * @param <E> type of elements
+ */
+public class BitSetFact<E extends Indexable> extends SetFact<E> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final BitSet bits;
+
+    /**
+     * Maps indexes to the elements. As an index always denotes the same
+     * element, this table is shared among facts and only grows in place.
+     */
+    private Object[] elements;
+
+    public BitSetFact(Collection<E> c) {
+        this(new BitSet(), null);
+        c.forEach(this::add);
+    }
+
+    public BitSetFact() {
+        this(new BitSet(), null);
+    }
+
+    private BitSetFact(BitSet bits, Object[] elements) {
+        super((Void) null);
+        this.bits = bits;
+        this.elements = elements;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return bits.get(e.getIndex());
+    }
+
+    @Override
+    public boolean add(E e) {
+        int index = e.getIndex();
+        if (bits.get(index)) {
+            return false;
+        }
+        putElement(index, e);
+        bits.set(index);
+        return true;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int index = e.getIndex();
+        if (bits.get(index)) {
+            bits.clear(index);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<E> filter) {
+        boolean changed = false;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            if (filter.test(getElement(i))) {
+                bits.clear(i);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            mergeElements(that);
+            int oldSize = bits.cardinality();
+            bits.or(that.bits);
+            return bits.cardinality() != oldSize;
+        }
+        boolean changed = false;
+        Iterator<E> it = other.stream().iterator();
+        while (it.hasNext()) {
+            changed |= add(it.next());
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            int oldSize = bits.cardinality();
+            bits.and(that.bits);
+            return bits.cardinality() != oldSize;
+        }
+        return removeIf(e -> !other.contains(e));
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            bits.clear();
+            bits.or(that.bits);
+            elements = that.elements;
+        } else {
+            clear();
+            union(other);
+        }
+    }
+
+    @Override
+    public BitSetFact<E> copy() {
+        return new BitSetFact<>((BitSet) bits.clone(), elements);
+    }
+
+    @Override
+    public void clear() {
+        bits.clear();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return bits.stream().mapToObj(this::getElement);
+    }
+
+    @Override
+    public int size() {
+        return bits.cardinality();
+    }
+
+    @SuppressWarnings("unchecked")
+    private E getElement(int index) {
+        return (E) elements[index];
+    }
+
+    private void putElement(int index, E e) {
+        if (elements == null) {
+            elements = new Object[Math.max(index + 1, DEFAULT_CAPACITY)];
+        } else if (index >= elements.length) {
+            elements = Arrays.copyOf(elements,
+                    Math.max(index + 1, elements.length * 2));
+        }
+        elements[index] = e;
+    }
+
+    /**
+     * Makes sure that the elements of given fact can be looked up
+     * from the element table of this fact.
+     */
+    private void mergeElements(BitSetFact<E> other) {
+        if (elements == other.elements || other.elements == null) {
+            return;
+        }
+        if (elements == null || bits.isEmpty() &&
+                elements.length <= other.elements.length) {
+            elements = other.elements;
+            return;
+        }
+        BitSet bs = other.bits;
+        for (int i = bs.nextSetBit(0); i >= 0; i = bs.nextSetBit(i + 1)) {
+            if (i >= elements.length || elements[i] == null) {
+                putElement(i, other.getElement(i));
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof BitSetFact<?> that) {
+            return bits.equals(that.bits);
+        }
+        if (!(o instanceof SetFact<?> that)) {
+            return false;
+        }
+        // compare with other kinds of set facts by their elements
+        return size() == that.size() && that.stream().allMatch(e ->
+                e instanceof Indexable i && bits.get(i.getIndex())
+                        && e.equals(elements[i.getIndex()]));
+    }
+
+    @Override
+    public int hashCode() {
+        // consistent with the hash code of java.util.Set
+        return stream().mapToInt(Object::hashCode).sum();
+    }
+
+    @Override
+    public String toString() {
+        return Streams.toString(stream());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of canonical (interned) data-flow facts. Each group of equal
+ * facts is represented by a single canonical instance, which is assigned
+ * a unique int id, thus canonical facts can be compared by their ids
+ * (or simply by reference).
+ * <p>
+ * The canonical facts are shared by all their users,
+ * so they must NOT be modified after being interned.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class FactTable<Fact> {
+
+    /**
+     * Maps each fact to its id, where equal facts have the same id.
+     * It is only needed to intern non-canonical facts, thus it can be
+     * released by {@link #trim()}, and is rebuilt on demand.
+     */
+    private Map<Fact, Integer> fact2Id = Maps.newMap();
+
+    /**
+     * Maps each canonical fact to its id. Different from {@link #fact2Id},
+     * it compares facts by reference, thus querying is O(1).
+     */
+    private final Map<Fact, Integer> canonical2Id = new IdentityHashMap<>();
+
+    /**
+     * Canonical facts, indexed by their ids.
+     */
+    private final List<Fact> facts = new ArrayList<>();
+
+    /**
+     * @return the canonical fact which is equal to given fact. If such
+     * fact does not exist yet, then given fact becomes the canonical one.
+     */
+    public Fact intern(Fact fact) {
+        Integer id = canonical2Id.get(fact);
+        if (id == null) {
+            id = getFact2Id().get(fact);
+            if (id == null) {
+                id = facts.size();
+                fact2Id.put(fact, id);
+                canonical2Id.put(fact, id);
+                facts.add(fact);
+            }
+        }
+        return facts.get(id);
+    }
+
+    private Map<Fact, Integer> getFact2Id() {
+        if (fact2Id == null) {
+            fact2Id = Maps.newMap(facts.size());
+            for (int i = 0; i < facts.size(); ++i) {
+                fact2Id.put(facts.get(i), i);
+            }
+        }
+        return fact2Id;
+    }
+
+    /**
+     * Releases the memory for interning non-canonical facts. This table
+     * is still usable after trimming, but interning a non-canonical fact
+     * then rebuilds the released map, thus this method should be called
+     * when most facts to be interned have been interned, e.g., at the end
+     * of {@link DataflowResult#compact()}.
+     */
+    public void trim() {
+        fact2Id = null;
+    }
+
+    /**
+     * @return the id of given canonical fact.
+     * @throws IllegalArgumentException if given fact is not canonical
+     */
+    public int getId(Fact canonical) {
+        Integer id = canonical2Id.get(canonical);
+        if (id == null) {
+            throw new IllegalArgumentException(
+                    canonical + " is not a canonical fact in this table");
+        }
+        return id;
+    }
+
+    /**
+     * @return the canonical fact of given id.
+     */
+    public Fact getFact(int id) {
+        return facts.get(id);
+    }
+
+    /**
+     * @return the number of canonical facts in this table.
+     */
+    public int size() {
+        return facts.size();
+    }
+}
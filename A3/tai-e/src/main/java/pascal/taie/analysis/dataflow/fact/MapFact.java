@@ -88,8 +88,10 @@ public class MapFact<K, V> {
      */
     public boolean copyFrom(MapFact<K, V> fact) {
         boolean changed = false;
-        for (Map.Entry<K, V> entry : fact.map.entrySet()) {
-            changed |= update(entry.getKey(), entry.getValue());
+        // access the content of given fact via its methods
+        // instead of its map, as subclasses may store content elsewhere
+        for (K key : fact.keySet()) {
+            changed |= update(key, fact.get(key));
         }
         return changed;
     }
@@ -115,6 +117,13 @@ public class MapFact<K, V> {
         return map.keySet();
     }
 
+    /**
+     * @return the number of keys in this fact.
+     */
+    public int size() {
+        return map.size();
+    }
+
     /**
      * @return all entries (key-value mappings) in this fact.
      */
@@ -137,6 +146,8 @@ public class MapFact<K, V> {
         if (this == o) {
             return true;
         }
+        // the facts of different classes are never equal, as subclasses
+        // may store content elsewhere
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -154,8 +165,7 @@ public class MapFact<K, V> {
         // Sort key-value pairs by key's string representation, so that the
         // fact representation is stable across executions. This is useful
         // for comparing expected results and the ones given by the analysis.
-        return "{" + map.entrySet()
-                .stream()
+        return "{" + entries()
                 .sorted(Comparator.comparing(e -> e.getKey().toString()))
                 .map(e -> e.getKey() + "=" + e.getValue())
                 .collect(Collectors.joining(", ")) + "}";
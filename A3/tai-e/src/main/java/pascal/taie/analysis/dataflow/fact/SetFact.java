@@ -27,6 +27,7 @@ import pascal.taie.util.collection.Sets;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -48,6 +49,15 @@ public class SetFact<E> {
         this(Collections.emptySet());
     }
 
+    /**
+     * Constructs a fact which keeps no elements in {@link #set}, for the
+     * subclasses which store their elements elsewhere. Such subclasses
+     * must override all methods of this class which access {@link #set}.
+     */
+    protected SetFact(Void noStorage) {
+        set = Collections.emptySet();
+    }
+
     /**
      * @return true if this set contains the specified element, otherwise false.
      */
@@ -89,7 +99,14 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
-        return set.addAll(other.set);
+        // access other fact via its methods instead of its set,
+        // as subclasses may store elements elsewhere
+        boolean changed = false;
+        Iterator<E> it = other.stream().iterator();
+        while (it.hasNext()) {
+            changed |= set.add(it.next());
+        }
+        return changed;
     }
 
     /**
@@ -107,7 +124,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
-        return set.retainAll(other.set);
+        return set.removeIf(e -> !other.contains(e));
     }
 
     /**
@@ -161,7 +178,7 @@ public class SetFact<E> {
         if (!(o instanceof SetFact<?> that)) {
             return false;
         }
-        return set.equals(that.set);
+        return size() == that.size() && that.stream().allMatch(set::contains);
     }
 
     @Override
@@ -0,0 +1,264 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solver which solves data-flow problems on statements at the granularity
+ * of basic blocks: the underlying solver (given by the options, as in
+ * {@link Solver#makeSolver(DataflowAnalysis, AnalysisOptions)}) only
+ * stores the facts at the boundaries of blocks, and the transfer functions
+ * of the statements inside a block are applied in sequence.
+ * The facts of the statements inside the blocks are not stored, but
+ * recomputed from the boundary facts when they are queried.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class BlockSolver<Fact> {
+
+    private final DataflowAnalysis<Stmt, Fact> analysis;
+
+    private final AnalysisOptions options;
+
+    public BlockSolver(DataflowAnalysis<Stmt, Fact> analysis,
+                       AnalysisOptions options) {
+        this.analysis = analysis;
+        this.options = options;
+    }
+
+    /**
+     * Starts this solver on the given CFG.
+     *
+     * @param cfg control-flow graph where the analysis is performed on
+     * @return the analysis result
+     */
+    public NodeResult<Stmt, Fact> solve(CFG<Stmt> cfg) {
+        BlockCFG blockCFG = new BlockCFG(cfg);
+        // the block analysis is bound to the CFG, as it transfers the facts
+        // along the block edges by the corresponding statement edges
+        Solver<BasicBlock, Fact> solver = Solver.makeSolver(
+                new BlockAnalysis(blockCFG), options,
+                SolverMetrics.nameOf(analysis));
+        return new BlockResult(blockCFG, solver.solve(blockCFG));
+    }
+
+    /**
+     * Applies the transfer functions of the statements in given block
+     * in the direction of the analysis, starting from {@code fact},
+     * and stops before {@code stop} (or after the whole block if
+     * {@code stop} is null).
+     * As each statement in a block (except the first one) has only one
+     * predecessor, i.e., the previous statement, the flowing-out fact of
+     * a statement is directly used as the flowing-in fact of the next one.
+     *
+     * @return the fact before {@code stop}.
+     */
+    private Fact replay(BasicBlock block, Fact fact, Stmt stop) {
+        List<Stmt> stmts = block.getStmts();
+        int n = stmts.size();
+        for (int i = 0; i < n; ++i) {
+            Stmt stmt = stmts.get(analysis.isForward() ? i : n - 1 - i);
+            if (stmt == stop) {
+                break;
+            }
+            Fact next = analysis.newInitialFact();
+            if (analysis.isForward()) {
+                analysis.transferNode(stmt, fact, next);
+            } else {
+                analysis.transferNode(stmt, next, fact);
+            }
+            fact = next;
+        }
+        return fact;
+    }
+
+    /**
+     * Data-flow analysis on basic blocks, which is lifted
+     * from the analysis on statements.
+     */
+    private class BlockAnalysis implements DataflowAnalysis<BasicBlock, Fact> {
+
+        private final BlockCFG cfg;
+
+        private BlockAnalysis(BlockCFG cfg) {
+            this.cfg = cfg;
+        }
+
+        @Override
+        public boolean isForward() {
+            return analysis.isForward();
+        }
+
+        @Override
+        public Fact newBoundaryFact(CFG<BasicBlock> cfg) {
+            return analysis.newBoundaryFact(this.cfg.getStmtCFG());
+        }
+
+        @Override
+        public Fact newInitialFact() {
+            return analysis.newInitialFact();
+        }
+
+        @Override
+        public void meetInto(Fact fact, Fact target) {
+            analysis.meetInto(fact, target);
+        }
+
+        @Override
+        public boolean needWidening() {
+            return analysis.needWidening();
+        }
+
+        @Override
+        public void widenInto(Fact fact, Fact target) {
+            analysis.widenInto(fact, target);
+        }
+
+        @Override
+        public boolean transferNode(BasicBlock block, Fact in, Fact out) {
+            if (isForward()) {
+                Stmt last = block.getLastStmt();
+                return analysis.transferNode(last, replay(block, in, last), out);
+            } else {
+                Stmt first = block.getFirstStmt();
+                return analysis.transferNode(first, in, replay(block, out, first));
+            }
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<BasicBlock> edge) {
+            return analysis.needTransferEdge(cfg.getStmtEdge(edge));
+        }
+
+        @Override
+        public Fact transferEdge(Edge<BasicBlock> edge, Fact nodeFact) {
+            return analysis.transferEdge(cfg.getStmtEdge(edge), nodeFact);
+        }
+    }
+
+    /**
+     * Result of block solver, which recomputes the facts
+     * of the statements inside the blocks on query. The facts of all
+     * statements in a block are recomputed together, by replaying the
+     * block once, and the facts of the last queried block are kept,
+     * as the statements are usually queried block by block.
+     */
+    private class BlockResult implements NodeResult<Stmt, Fact> {
+
+        private final BlockCFG cfg;
+
+        private final DataflowResult<BasicBlock, Fact> result;
+
+        /**
+         * Facts of the statements in the last queried block.
+         */
+        private volatile BlockFacts last;
+
+        private BlockResult(BlockCFG cfg, DataflowResult<BasicBlock, Fact> result) {
+            this.cfg = cfg;
+            this.result = result;
+        }
+
+        @Override
+        public Fact getInFact(Stmt stmt) {
+            return getBlockFacts(stmt).inFacts.get(stmt);
+        }
+
+        @Override
+        public Fact getOutFact(Stmt stmt) {
+            return getBlockFacts(stmt).outFacts.get(stmt);
+        }
+
+        private BlockFacts getBlockFacts(Stmt stmt) {
+            BasicBlock block = cfg.getBlockOf(stmt);
+            BlockFacts facts = last;
+            if (facts == null || facts.block != block) {
+                facts = new BlockFacts(block, result);
+                last = facts;
+            }
+            return facts;
+        }
+    }
+
+    /**
+     * Facts of the statements in a block, which are recomputed from
+     * the facts at the boundaries of the block. The facts at the
+     * boundaries are shared with the result of the underlying solver.
+     */
+    private class BlockFacts {
+
+        private final BasicBlock block;
+
+        private final Map<Stmt, Fact> inFacts = Maps.newHybridMap();
+
+        private final Map<Stmt, Fact> outFacts = Maps.newHybridMap();
+
+        private BlockFacts(BasicBlock block, DataflowResult<BasicBlock, Fact> result) {
+            this.block = block;
+            List<Stmt> stmts = block.getStmts();
+            int n = stmts.size();
+            if (analysis.isForward()) {
+                Fact fact = result.getInFact(block);
+                for (int i = 0; i < n; ++i) {
+                    Stmt stmt = stmts.get(i);
+                    inFacts.put(stmt, fact);
+                    if (i == n - 1) {
+                        fact = result.getOutFact(block);
+                    } else {
+                        Fact out = analysis.newInitialFact();
+                        analysis.transferNode(stmt, fact, out);
+                        fact = out;
+                    }
+                    outFacts.put(stmt, fact);
+                }
+            } else {
+                Fact fact = result.getOutFact(block);
+                for (int i = n - 1; i >= 0; --i) {
+                    Stmt stmt = stmts.get(i);
+                    outFacts.put(stmt, fact);
+                    if (i == 0) {
+                        fact = result.getInFact(block);
+                    } else {
+                        Fact in = analysis.newInitialFact();
+                        analysis.transferNode(stmt, in, fact);
+                        fact = in;
+                    }
+                    inFacts.put(stmt, fact);
+                }
+            }
+        }
+    }
+}
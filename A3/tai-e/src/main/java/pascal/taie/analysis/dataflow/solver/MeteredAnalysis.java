@@ -0,0 +1,134 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+
+/**
+ * Data-flow analysis which delegates to another analysis and records
+ * the calls to it in {@link SolverMetrics}. A solver uses this wrapper
+ * only if option "metrics" is true, so that the solvers are not slowed
+ * down by collecting metrics otherwise.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+class MeteredAnalysis<Node, Fact> implements DataflowAnalysis<Node, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final String id;
+
+    /**
+     * Metrics of the solving in progress on each thread,
+     * as the methods may be solved in parallel by the same solver.
+     */
+    private final ThreadLocal<SolverMetrics.Entry> current = new ThreadLocal<>();
+
+    MeteredAnalysis(DataflowAnalysis<Node, Fact> analysis, String id) {
+        this.analysis = analysis;
+        this.id = id;
+    }
+
+    /**
+     * Starts recording the metrics of solving given CFG on current thread.
+     */
+    SolverMetrics.Entry begin(CFG<Node> cfg) {
+        SolverMetrics.Entry entry = new SolverMetrics.Entry(
+                id, String.valueOf(cfg.getMethod()));
+        // the start time is subtracted here and the end time is added in end()
+        entry.addNanos(-System.nanoTime());
+        current.set(entry);
+        return entry;
+    }
+
+    /**
+     * Finishes recording given metrics, and adds them to the registry.
+     */
+    void end(SolverMetrics.Entry entry) {
+        entry.addNanos(System.nanoTime());
+        current.remove();
+        SolverMetrics.add(entry);
+    }
+
+    @Override
+    public boolean isForward() {
+        return analysis.isForward();
+    }
+
+    @Override
+    public Fact newBoundaryFact(CFG<Node> cfg) {
+        return analysis.newBoundaryFact(cfg);
+    }
+
+    @Override
+    public Fact newInitialFact() {
+        return analysis.newInitialFact();
+    }
+
+    @Override
+    public void meetInto(Fact fact, Fact target) {
+        SolverMetrics.Entry entry = current.get();
+        if (entry != null) {
+            entry.addMeet();
+        }
+        analysis.meetInto(fact, target);
+    }
+
+    @Override
+    public boolean needWidening() {
+        return analysis.needWidening();
+    }
+
+    @Override
+    public void widenInto(Fact fact, Fact target) {
+        SolverMetrics.Entry entry = current.get();
+        if (entry != null) {
+            entry.addMeet();
+        }
+        analysis.widenInto(fact, target);
+    }
+
+    @Override
+    public boolean transferNode(Node node, Fact in, Fact out) {
+        boolean changed = analysis.transferNode(node, in, out);
+        SolverMetrics.Entry entry = current.get();
+        if (entry != null) {
+            entry.addVisit(changed,
+                    SolverMetrics.sizeOf(isForward() ? out : in));
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean needTransferEdge(Edge<Node> edge) {
+        return analysis.needTransferEdge(edge);
+    }
+
+    @Override
+    public Fact transferEdge(Edge<Node> edge, Fact nodeFact) {
+        return analysis.transferEdge(edge, nodeFact);
+    }
+}
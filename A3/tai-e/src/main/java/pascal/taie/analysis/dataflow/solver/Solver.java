@@ -25,6 +25,20 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -37,6 +51,24 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * Whether to turn the results into compact mode after solving,
+     * see {@link DataflowResult#compact()}.
+     */
+    private boolean compact;
+
+    /**
+     * The analysis wrapper which records the metrics of solving,
+     * or null if option "metrics" is false.
+     */
+    private MeteredAnalysis<Node, Fact> metered;
+
+    /**
+     * Number of visits to a loop head before widening the facts
+     * flowing into it, see {@link Widening}.
+     */
+    private int wideningDelay;
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
     }
@@ -49,6 +81,57 @@ public abstract class Solver<Node, Fact> {
         return new WorkListSolver<>(analysis);
     }
 
+    /**
+     * Static factory method to create a new solver for given analysis
+     * according to the given options. Supported options:
+     * <ul>
+     *     <li>solver: worklist (default) | wto</li>
+     *     <li>worklist: fifo (default) | priority, only for work-list solver</li>
+     *     <li>compact: false (default) | true, whether the results
+     *     share equal facts</li>
+     *     <li>metrics: false (default) | true, whether to record the
+     *     metrics of solving in {@link SolverMetrics}</li>
+     *     <li>widening-delay: 0 (default) | n, number of visits to a loop
+     *     head before widening, only for the analyses which need widening</li>
+     * </ul>
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, AnalysisOptions options) {
+        return makeSolver(analysis, options, SolverMetrics.nameOf(analysis));
+    }
+
+    /**
+     * Creates a new solver for given analysis according to the given
+     * options, and the metrics of the solver are recorded under {@code id}.
+     */
+    static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, AnalysisOptions options,
+            String id) {
+        MeteredAnalysis<Node, Fact> metered = null;
+        if (options.getBooleanOrDefault("metrics", false)) {
+            metered = new MeteredAnalysis<>(analysis, id);
+            analysis = metered;
+        }
+        String kind = options.getString("solver");
+        Solver<Node, Fact> solver;
+        if (kind == null || kind.equals("worklist")) {
+            solver = new WorkListSolver<>(analysis,
+                    WorkList.Kind.of(options.getString("worklist")));
+        } else if (kind.equals("wto")) {
+            solver = new WTOSolver<>(analysis);
+        } else {
+            throw new AnalysisException("Unknown solver: " + kind);
+        }
+        solver.compact = options.getBooleanOrDefault("compact", false);
+        solver.metered = metered;
+        Object delay = options.get("widening-delay");
+        solver.wideningDelay = delay != null ? (Integer) delay : 0;
+        if (solver.wideningDelay < 0) {
+            throw new AnalysisException("Illegal widening delay: " + delay);
+        }
+        return solver;
+    }
+
     /**
      * Starts this solver on the given CFG.
      *
@@ -56,18 +139,178 @@ public abstract class Solver<Node, Fact> {
      * @return the analysis result
      */
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        SolverMetrics.Entry entry = metered != null ? metered.begin(cfg) : null;
         DataflowResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
+        if (entry != null) {
+            metered.end(entry);
+        }
+        if (compact) {
+            result.compact();
+        }
         return result;
     }
 
+    /**
+     * Re-solves the data-flow problem incrementally after the CFG solved
+     * as {@code result} has been edited, e.g., some dead statements have
+     * been removed. Only the facts of the nodes affected by the edits,
+     * i.e., the nodes which are reachable (in the direction of the analysis)
+     * from the changed nodes in the edited CFG, are reset and recomputed,
+     * and the facts of the other nodes are reused.
+     * <p>
+     * A node is changed if it is added, removed or modified by the edits,
+     * or any edge from/to it is added or removed. The nodes which are not
+     * changed must be the same objects (with the same indexes) in both CFGs.
+     * The facts are the same as the ones of solving the edited CFG from
+     * scratch if the transfer functions are monotone; otherwise, e.g., for
+     * the analyses which need widening, they may depend on the order of
+     * processing the nodes, just like the facts of different solvers.
+     *
+     * @param oldCFG  the CFG before the edits
+     * @param cfg     the CFG after the edits
+     * @param result  the result of solving {@code oldCFG}, which is
+     *                updated in place; the facts of the removed nodes
+     *                are left unchanged
+     * @param changed the changed nodes
+     * @return {@code result}, updated for the edited CFG
+     */
+    public DataflowResult<Node, Fact> resolve(
+            CFG<Node> oldCFG, CFG<Node> cfg,
+            DataflowResult<Node, Fact> result, Set<Node> changed) {
+        SolverMetrics.Entry entry = metered != null ? metered.begin(cfg) : null;
+        Set<Node> affected = getAffectedNodes(oldCFG, cfg, changed);
+        // the affected nodes are solved on new facts, which are stored
+        // to the result afterwards, as the facts of a compact result
+        // may be shared by multiple nodes and must not be modified
+        DataflowResult<Node, Fact> facts = new DataflowResult<>(
+                Solver::indexOf, cfg.getNumberOfNodes());
+        Node boundary = analysis.isForward() ? cfg.getEntry() : cfg.getExit();
+        for (Node node : affected) {
+            facts.setInFact(node, node == boundary ?
+                    analysis.newBoundaryFact(cfg) : analysis.newInitialFact());
+            facts.setOutFact(node, node == boundary ?
+                    analysis.newBoundaryFact(cfg) : analysis.newInitialFact());
+        }
+        if (analysis.isForward()) {
+            resolveForward(cfg, result, facts, affected);
+        } else {
+            resolveBackward(cfg, result, facts, affected);
+        }
+        for (Node node : affected) {
+            result.setInFact(node, facts.getInFact(node));
+            result.setOutFact(node, facts.getOutFact(node));
+        }
+        if (entry != null) {
+            metered.end(entry);
+        }
+        return result;
+    }
+
+    /**
+     * @return the nodes of {@code cfg} whose facts may be affected
+     * by the changed nodes.
+     */
+    private Set<Node> getAffectedNodes(
+            CFG<Node> oldCFG, CFG<Node> cfg, Set<Node> changed) {
+        boolean isForward = analysis.isForward();
+        Deque<Node> stack = new ArrayDeque<>();
+        for (Node node : changed) {
+            if (cfg.hasNode(node)) {
+                stack.push(node);
+            }
+            if (oldCFG.hasNode(node)) {
+                // the facts which used to flow from the changed node
+                // (which may have been removed) are affected
+                for (Node next : isForward ?
+                        oldCFG.getSuccsOf(node) : oldCFG.getPredsOf(node)) {
+                    if (cfg.hasNode(next)) {
+                        stack.push(next);
+                    }
+                }
+            }
+        }
+        Set<Node> affected = Sets.newSet();
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (affected.add(node)) {
+                for (Node next : isForward ?
+                        cfg.getSuccsOf(node) : cfg.getPredsOf(node)) {
+                    stack.push(next);
+                }
+            }
+        }
+        return affected;
+    }
+
+    private void resolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                DataflowResult<Node, Fact> facts, Set<Node> affected) {
+        Queue<Node> workList = new SetQueue<>();
+        for (Node node : cfg) {
+            if (affected.contains(node)) {
+                workList.add(node);
+            }
+        }
+        Widening<Node> widening = newWidening(cfg);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = facts.getInFact(node);
+            Fact out = facts.getOutFact(node);
+            boolean widen = widening != null && widening.visit(node);
+            for (Edge<Node> edge : cfg.getInEdgesOf(node)) {
+                // the unaffected predecessors keep their facts in result
+                Node pred = edge.getSource();
+                Fact predOut = affected.contains(pred) ?
+                        facts.getOutFact(pred) : result.getOutFact(pred);
+                meetInto(edge, predOut, in, widen);
+            }
+            if (analysis.transferNode(node, in, out)) {
+                // all successors of an affected node are affected
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
+    }
+
+    private void resolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                 DataflowResult<Node, Fact> facts, Set<Node> affected) {
+        Queue<Node> workList = new SetQueue<>();
+        List<Node> nodes = new ArrayList<>(cfg.getNodes());
+        Collections.reverse(nodes);
+        for (Node node : nodes) {
+            if (affected.contains(node)) {
+                workList.add(node);
+            }
+        }
+        Widening<Node> widening = newWidening(cfg);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = facts.getInFact(node);
+            Fact out = facts.getOutFact(node);
+            boolean widen = widening != null && widening.visit(node);
+            for (Edge<Node> edge : cfg.getOutEdgesOf(node)) {
+                // the unaffected successors keep their facts in result
+                Node succ = edge.getTarget();
+                Fact succIn = affected.contains(succ) ?
+                        facts.getInFact(succ) : result.getInFact(succ);
+                meetInto(edge, succIn, out, widen);
+            }
+            if (analysis.transferNode(node, in, out)) {
+                // all predecessors of an affected node are affected
+                workList.addAll(cfg.getPredsOf(node));
+            }
+        }
+    }
+
     /**
      * Creates and initializes a new data-flow result for given CFG.
      *
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        // the indexes of the statements (and basic blocks) of a CFG
+        // are less than the number of its nodes
+        DataflowResult<Node, Fact> result = new DataflowResult<>(
+                Solver::indexOf, cfg.getNumberOfNodes());
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,6 +319,10 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    private static int indexOf(Object node) {
+        return node instanceof Indexable indexable ? indexable.getIndex() : -1;
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
         result.setInFact(cfg.getEntry(), analysis.newBoundaryFact(cfg));
@@ -100,6 +347,34 @@ public abstract class Solver<Node, Fact> {
         }
     }
 
+    /**
+     * @return a new widening for solving given CFG,
+     * or null if the analysis does not need widening.
+     */
+    protected Widening<Node> newWidening(CFG<Node> cfg) {
+        return analysis.needWidening() ?
+                new Widening<>(cfg, analysis.isForward(), wideningDelay) : null;
+    }
+
+    /**
+     * Meets the fact flowing along given edge into {@code target}, or
+     * widens {@code target} with it if {@code widen} is true. The fact is
+     * transferred by the edge first if the analysis needs edge transfer.
+     *
+     * @param fact the OUT fact of the source of the edge for forward
+     *             analyses, or the IN fact of its target for backward ones
+     */
+    protected void meetInto(Edge<Node> edge, Fact fact, Fact target, boolean widen) {
+        if (analysis.needTransferEdge(edge)) {
+            fact = analysis.transferEdge(edge, fact);
+        }
+        if (widen) {
+            analysis.widenInto(fact, target);
+        } else {
+            analysis.meetInto(fact, target);
+        }
+    }
+
     /**
      * Solves the data-flow problem for given CFG.
      */
@@ -0,0 +1,155 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.ReverseGraph;
+import pascal.taie.util.graph.WeakTopologicalOrder;
+import pascal.taie.util.graph.WeakTopologicalOrder.Element;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Solver which iterates the nodes in a weak topological order of the CFG
+ * (the reversed CFG for backward analyses), i.e., Bourdoncle's recursive
+ * iteration strategy: single nodes are processed once, and each component
+ * is repeatedly iterated, inner components being stabilized first,
+ * until the fact of its head does not change. Thus, each node of
+ * an acyclic CFG is processed only once.
+ */
+class WTOSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    private static final Logger logger = LogManager.getLogger(WTOSolver.class);
+
+    WTOSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        WeakTopologicalOrder<Node> wto =
+                new WeakTopologicalOrder<>(cfg, cfg.getEntry());
+        doSolve(cfg, result, wto);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        WeakTopologicalOrder<Node> wto =
+                new WeakTopologicalOrder<>(new ReverseGraph<>(cfg), cfg.getExit());
+        doSolve(cfg, result, wto);
+    }
+
+    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                         WeakTopologicalOrder<Node> wto) {
+        Iteration iteration = new Iteration(cfg, result);
+        iteration.visit(wto.getElements());
+        logger.debug("WTO solver performed {} transfers ({} nodes in CFG) for {}",
+                iteration.transfers, cfg.getNumberOfNodes(), cfg.getMethod());
+    }
+
+    /**
+     * Iteration over the WTO of a CFG. Only the nodes whose incoming
+     * facts may have changed since their last transfer (i.e., dirty nodes)
+     * are processed again when iterating a component.
+     */
+    private class Iteration {
+
+        private final CFG<Node> cfg;
+
+        private final DataflowResult<Node, Fact> result;
+
+        private final Set<Node> dirtyNodes;
+
+        private final Widening<Node> widening;
+
+        private int transfers = 0;
+
+        private Iteration(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+            this.cfg = cfg;
+            this.result = result;
+            this.widening = newWidening(cfg);
+            this.dirtyNodes = Sets.newSet(cfg.getNumberOfNodes());
+            dirtyNodes.addAll(cfg.getNodes());
+        }
+
+        private void visit(List<Element<Node>> elements) {
+            for (Element<Node> element : elements) {
+                if (element.isComponent()) {
+                    stabilize(element);
+                } else {
+                    transfer(element.getNode());
+                }
+            }
+        }
+
+        /**
+         * Iterates given component until its head is stable. As every
+         * cycle in the component passes through the head, the component
+         * is stable when the head is not dirty after visiting the body.
+         */
+        private void stabilize(Element<Node> component) {
+            Node head = component.getNode();
+            do {
+                transfer(head);
+                visit(component.getBody());
+            } while (dirtyNodes.contains(head));
+        }
+
+        /**
+         * Meets the facts flowing into given node and applies its transfer
+         * if the node is dirty. If the transfer changes the fact of the node,
+         * then the nodes which depend on it become dirty.
+         */
+        private void transfer(Node node) {
+            if (!dirtyNodes.remove(node)) {
+                return;
+            }
+            ++transfers;
+            Fact in = result.getInFact(node);
+            Fact out = result.getOutFact(node);
+            boolean widen = widening != null && widening.visit(node);
+            if (analysis.isForward()) {
+                for (Edge<Node> edge : cfg.getInEdgesOf(node)) {
+                    meetInto(edge, result.getOutFact(edge.getSource()), in, widen);
+                }
+                if (analysis.transferNode(node, in, out)) {
+                    dirtyNodes.addAll(cfg.getSuccsOf(node));
+                }
+            } else {
+                for (Edge<Node> edge : cfg.getOutEdgesOf(node)) {
+                    meetInto(edge, result.getInFact(edge.getTarget()), out, widen);
+                }
+                if (analysis.transferNode(node, in, out)) {
+                    dirtyNodes.addAll(cfg.getPredsOf(node));
+                }
+            }
+        }
+    }
+}
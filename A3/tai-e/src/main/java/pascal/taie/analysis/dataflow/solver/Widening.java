@@ -0,0 +1,73 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.DepthFirstOrder;
+import pascal.taie.util.graph.ReverseGraph;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides where the solvers widen the facts in a CFG. The facts flowing
+ * into the loop heads, i.e., the targets of the back edges in a depth-first
+ * traversal of the CFG (the reversed CFG for backward analyses), are
+ * widened after the heads have been visited {@code delay} times.
+ * As every cycle of the CFG contains a loop head, this ensures that
+ * the solving terminates.
+ * <p>
+ * Each solving needs a new instance, as it records the visits to
+ * the loop heads.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class Widening<Node> {
+
+    private final Set<Node> loopHeads;
+
+    private final int delay;
+
+    private final Map<Node, Integer> visits = Maps.newHybridMap();
+
+    Widening(CFG<Node> cfg, boolean isForward, int delay) {
+        this.loopHeads = isForward ?
+                new DepthFirstOrder<>(cfg, cfg.getEntry()).getLoopHeads() :
+                new DepthFirstOrder<>(new ReverseGraph<>(cfg), cfg.getExit()).getLoopHeads();
+        this.delay = delay;
+    }
+
+    /**
+     * Records a visit to given node.
+     *
+     * @return true if the facts flowing into the node should be widened
+     * in this visit, otherwise false.
+     */
+    boolean visit(Node node) {
+        if (!loopHeads.contains(node)) {
+            return false;
+        }
+        return visits.merge(node, 1, Integer::sum) > delay;
+    }
+}
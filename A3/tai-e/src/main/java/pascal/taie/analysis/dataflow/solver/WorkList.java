@@ -0,0 +1,196 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.graph.DepthFirstOrder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Work-list of CFG nodes for {@link WorkListSolver}.
+ * A work-list never holds duplicate nodes, and it initially
+ * contains all nodes of the CFG.
+ *
+ * @param <Node> type of CFG nodes
+ */
+abstract class WorkList<Node> {
+
+    /**
+     * Number of nodes polled from this work-list.
+     */
+    private int visits = 0;
+
+    /**
+     * Adds a node to this work-list.
+     *
+     * @return true if the node was not in this work-list, otherwise false.
+     */
+    abstract boolean add(Node node);
+
+    /**
+     * Removes and returns the next node to be processed.
+     */
+    final Node poll() {
+        ++visits;
+        return doPoll();
+    }
+
+    abstract Node doPoll();
+
+    abstract boolean isEmpty();
+
+    /**
+     * @return number of nodes polled from this work-list.
+     */
+    int getVisits() {
+        return visits;
+    }
+
+    /**
+     * Strategies for ordering the nodes in work-lists.
+     */
+    enum Kind {
+
+        /**
+         * Processes nodes in first-in-first-out order. Initially, the nodes
+         * are in iteration order of the CFG (reversed for backward analyses).
+         */
+        FIFO,
+
+        /**
+         * Always processes the pending node which comes first in
+         * reverse post-order (post-order for backward analyses) of the CFG.
+         * Thus, each node is processed only once on acyclic CFGs.
+         */
+        PRIORITY;
+
+        /**
+         * @return the kind of given name, or {@link #FIFO} if name is null.
+         */
+        static Kind of(String name) {
+            if (name == null) {
+                return FIFO;
+            }
+            return switch (name) {
+                case "fifo" -> FIFO;
+                case "priority" -> PRIORITY;
+                default -> throw new AnalysisException(
+                        "Unknown work-list kind: " + name);
+            };
+        }
+
+        <Node> WorkList<Node> newWorkList(CFG<Node> cfg, boolean isForward) {
+            return switch (this) {
+                case FIFO -> new FIFOWorkList<>(cfg, isForward);
+                case PRIORITY -> new PriorityWorkList<>(cfg, isForward);
+            };
+        }
+    }
+
+    private static class FIFOWorkList<Node> extends WorkList<Node> {
+
+        private final Queue<Node> queue = new SetQueue<>();
+
+        private FIFOWorkList(CFG<Node> cfg, boolean isForward) {
+            if (isForward) {
+                queue.addAll(cfg.getNodes());
+            } else {
+                // for backward analyses, start from the end of the CFG
+                List<Node> nodes = new ArrayList<>(cfg.getNodes());
+                Collections.reverse(nodes);
+                queue.addAll(nodes);
+            }
+        }
+
+        @Override
+        boolean add(Node node) {
+            return queue.add(node);
+        }
+
+        @Override
+        Node doPoll() {
+            return queue.poll();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+    }
+
+    /**
+     * Priority work-list whose pending nodes are kept in a {@link BitSet}
+     * over the positions of nodes in a depth-first order, thus the next
+     * node is always the pending one with the smallest position.
+     */
+    private static class PriorityWorkList<Node> extends WorkList<Node> {
+
+        private final List<Node> nodes;
+
+        private final Map<Node, Integer> positions;
+
+        private final BitSet pending;
+
+        private PriorityWorkList(CFG<Node> cfg, boolean isForward) {
+            DepthFirstOrder<Node> order = new DepthFirstOrder<>(cfg, cfg.getEntry());
+            nodes = isForward ? order.getReversePostOrder() : order.getPostOrder();
+            positions = Maps.newMap(nodes.size());
+            for (int i = 0; i < nodes.size(); ++i) {
+                positions.put(nodes.get(i), i);
+            }
+            pending = new BitSet(nodes.size());
+            pending.set(0, nodes.size());
+        }
+
+        @Override
+        boolean add(Node node) {
+            int pos = positions.get(node);
+            if (pending.get(pos)) {
+                return false;
+            }
+            pending.set(pos);
+            return true;
+        }
+
+        @Override
+        Node doPoll() {
+            int pos = pending.nextSetBit(0);
+            pending.clear(pos);
+            return nodes.get(pos);
+        }
+
+        @Override
+        boolean isEmpty() {
+            return pending.isEmpty();
+        }
+    }
+}
@@ -22,59 +22,76 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
-
-import java.util.LinkedList;
-import java.util.Queue;
+import pascal.taie.analysis.graph.cfg.Edge;
 
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(WorkListSolver.class);
+
+    private final WorkList.Kind workListKind;
+
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this(analysis, WorkList.Kind.FIFO);
+    }
+
+    WorkListSolver(DataflowAnalysis<Node, Fact> analysis,
+                   WorkList.Kind workListKind) {
         super(analysis);
+        this.workListKind = workListKind;
     }
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
-        Queue<Node> workList = new LinkedList<>(cfg.getNodes());
+        WorkList<Node> workList = workListKind.newWorkList(cfg, true);
+        Widening<Node> widening = newWidening(cfg);
         while (!workList.isEmpty()) {
             Node node = workList.poll();
             Fact in = result.getInFact(node);
             Fact out = result.getOutFact(node);
-            for (Node pred : cfg.getPredsOf(node)) {
-                analysis.meetInto(result.getOutFact(pred), in);
+            boolean widen = widening != null && widening.visit(node);
+            for (Edge<Node> edge : cfg.getInEdgesOf(node)) {
+                meetInto(edge, result.getOutFact(edge.getSource()), in, widen);
             }
             if (analysis.transferNode(node, in, out)) {
                 for (Node succ : cfg.getSuccsOf(node)) {
-                    if (!workList.contains(succ)) {
-                        workList.add(succ);
-                    }
+                    workList.add(succ);
                 }
             }
         }
+        logVisits(cfg, workList);
+    }
+
+    private void logVisits(CFG<Node> cfg, WorkList<Node> workList) {
+        logger.debug("{} work-list visited {} nodes ({} nodes in CFG) for {}",
+                workListKind, workList.getVisits(),
+                cfg.getNumberOfNodes(), cfg.getMethod());
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
-        initializeBackward(cfg, result);
-        boolean flag = true;
-        while (flag) {
-            flag = false;
-            for (Node node : cfg) {
-                Fact in = result.getInFact(node);
-                Fact out = result.getOutFact(node);
-                for (Node succ : cfg.getSuccsOf(node)) {
-                    analysis.meetInto(result.getInFact(succ), out);
-                }
-                result.setOutFact(node, out);
-                if (!analysis.transferNode(node, in, out)) {
-                    flag = true;
+        WorkList<Node> workList = workListKind.newWorkList(cfg, false);
+        Widening<Node> widening = newWidening(cfg);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = result.getInFact(node);
+            Fact out = result.getOutFact(node);
+            boolean widen = widening != null && widening.visit(node);
+            for (Edge<Node> edge : cfg.getOutEdgesOf(node)) {
+                meetInto(edge, result.getInFact(edge.getTarget()), out, widen);
+            }
+            if (analysis.transferNode(node, in, out)) {
+                for (Node pred : cfg.getPredsOf(node)) {
+                    workList.add(pred);
                 }
-                result.setInFact(node, in);
             }
         }
+        logVisits(cfg, workList);
     }
 }
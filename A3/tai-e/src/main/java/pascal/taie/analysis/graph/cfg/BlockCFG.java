@@ -0,0 +1,161 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Basic-block view of a CFG of statements. The entry and exit nodes of
+ * the statement CFG always form their own blocks, which are the entry
+ * and exit of this CFG, and each edge between two blocks corresponds
+ * to the edge(s) between the last statement of the source block and
+ * the first statement of the target block.
+ */
+public class BlockCFG extends AbstractCFG<BasicBlock> {
+
+    private final CFG<Stmt> stmtCFG;
+
+    /**
+     * Blocks of the statements, indexed by {@link Stmt#getIndex()}.
+     */
+    private final BasicBlock[] stmtBlocks;
+
+    /**
+     * Edges of the statement CFG which the edges of this CFG are built from.
+     */
+    private final Map<Edge<BasicBlock>, Edge<Stmt>> stmtEdges = Maps.newMap();
+
+    public BlockCFG(CFG<Stmt> stmtCFG) {
+        super(stmtCFG.getIR());
+        this.stmtCFG = stmtCFG;
+        this.stmtBlocks = new BasicBlock[stmtCFG.getNumberOfNodes()];
+        buildBlocks();
+        buildEdges();
+    }
+
+    private void buildBlocks() {
+        setEntry(newBlock(List.of(stmtCFG.getEntry())));
+        setExit(newBlock(List.of(stmtCFG.getExit())));
+        // first, build the blocks starting from the leaders, and then
+        // build the blocks for the remaining statements, which are
+        // on the cycles without leaders
+        List<Stmt> rest = new ArrayList<>();
+        for (Stmt stmt : stmtCFG) {
+            if (getBlockOf(stmt) == null) {
+                if (isLeader(stmt)) {
+                    buildBlock(stmt);
+                } else {
+                    rest.add(stmt);
+                }
+            }
+        }
+        for (Stmt stmt : rest) {
+            if (getBlockOf(stmt) == null) {
+                buildBlock(stmt);
+            }
+        }
+    }
+
+    /**
+     * @return true if given statement cannot be in the same block
+     * as its predecessor.
+     */
+    private boolean isLeader(Stmt stmt) {
+        if (stmtCFG.getInDegreeOf(stmt) != 1) {
+            return true;
+        }
+        Stmt pred = stmtCFG.getPredsOf(stmt).iterator().next();
+        return stmtCFG.isEntry(pred) || stmtCFG.getOutDegreeOf(pred) != 1;
+    }
+
+    private void buildBlock(Stmt leader) {
+        List<Stmt> stmts = new ArrayList<>();
+        Stmt stmt = leader;
+        while (true) {
+            stmts.add(stmt);
+            if (stmtCFG.getOutDegreeOf(stmt) != 1) {
+                break;
+            }
+            Stmt succ = stmtCFG.getSuccsOf(stmt).iterator().next();
+            if (succ == leader || stmtCFG.isExit(succ) || isLeader(succ)) {
+                break;
+            }
+            stmt = succ;
+        }
+        newBlock(stmts);
+    }
+
+    private BasicBlock newBlock(List<Stmt> stmts) {
+        BasicBlock block = new BasicBlock(nodes.size(), stmts);
+        stmts.forEach(stmt -> stmtBlocks[stmt.getIndex()] = block);
+        addNode(block);
+        return block;
+    }
+
+    private void buildEdges() {
+        for (BasicBlock block : getNodes()) {
+            for (Edge<Stmt> edge : stmtCFG.getOutEdgesOf(block.getLastStmt())) {
+                BasicBlock target = getBlockOf(edge.getTarget());
+                Edge<BasicBlock> blockEdge;
+                if (edge.isSwitchCase()) {
+                    blockEdge = new SwitchCaseEdge<>(
+                            block, target, edge.getCaseValue());
+                } else if (edge.isExceptional()) {
+                    blockEdge = new ExceptionalEdge<>(edge.getKind(),
+                            block, target, edge.getExceptions());
+                } else {
+                    blockEdge = new Edge<>(edge.getKind(), block, target);
+                }
+                addEdge(blockEdge);
+                stmtEdges.put(blockEdge, edge);
+            }
+        }
+    }
+
+    /**
+     * @return the statement CFG of this block CFG.
+     */
+    public CFG<Stmt> getStmtCFG() {
+        return stmtCFG;
+    }
+
+    /**
+     * @return the edge of the statement CFG which given edge
+     * of this CFG is built from.
+     */
+    public Edge<Stmt> getStmtEdge(Edge<BasicBlock> edge) {
+        return stmtEdges.get(edge);
+    }
+
+    /**
+     * @return the block which contains given statement.
+     */
+    public BasicBlock getBlockOf(Stmt stmt) {
+        return stmtBlocks[stmt.getIndex()];
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRPrinter;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Persistent cache of the per-method results of an analysis, which allows
+ * the analysis to skip the methods whose IR are unchanged since previous
+ * runs. The cache of each analysis is stored in file
+ * {@code <cache-dir>/<analysis-id>.cache}, where {@code cache-dir} is an
+ * option of the analysis, and the caching is disabled if the option is
+ * absent or null.
+ * <p>
+ * Each result is keyed by a SHA-256 hash of the IR of the method (as
+ * printed by {@link IRPrinter}, which includes the signature of the method),
+ * the edges of its CFG (which depend on the options of the CFG builder,
+ * e.g., "exception"), the ID, the options and the version of the analysis.
+ * The file is an append-only sequence of records
+ * {@code (key, length, encoded result)}, which is loaded when the cache is
+ * opened, and the result of each miss is appended to it immediately,
+ * thus an interrupted run keeps the finished results.
+ * If a key occurs multiple times, then the last record wins.
+ * <p>
+ * The numbers of hits and misses of all caches are logged by
+ * {@link #logStatistics()}, and all caches are closed by {@link #closeAll()}
+ * at the end of each run.
+ */
+public class ResultCache {
+
+    private static final Logger logger = LogManager.getLogger(ResultCache.class);
+
+    /**
+     * Magic number (and version of the file format) at the beginning
+     * of each cache file.
+     */
+    private static final int MAGIC = 0x7a1e_ca02;
+
+    /**
+     * Length of the keys, i.e., the SHA-256 hashes, in bytes.
+     */
+    private static final int KEY_LENGTH = 32;
+
+    /**
+     * All opened caches.
+     */
+    private static final List<ResultCache> caches = new CopyOnWriteArrayList<>();
+
+    /**
+     * Numbers of the hits of the closed caches, keyed by analysis ID.
+     */
+    private static final Map<String, Long> closedHits = new ConcurrentHashMap<>();
+
+    private final String id;
+
+    private final Path file;
+
+    /**
+     * Hash of the format, the ID, the version and the options of
+     * the analysis, which is mixed into the key of every result.
+     */
+    private final byte[] salt;
+
+    /**
+     * Encoded results, keyed by the full hashes (wrapped by
+     * {@link ByteBuffer}, which are compared by contents).
+     */
+    private final Map<ByteBuffer, byte[]> entries = new ConcurrentHashMap<>();
+
+    private final DataOutputStream writer;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private ResultCache(String id, Path file, byte[] salt) throws IOException {
+        this.id = id;
+        this.file = file;
+        this.salt = salt;
+        if (Files.exists(file)) {
+            load();
+        } else {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        boolean isNew = Files.notExists(file) || Files.size(file) == 0;
+        writer = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        if (isNew) {
+            writer.writeInt(MAGIC);
+            writer.flush();
+        }
+    }
+
+    /**
+     * Opens the cache of the analysis of given ID and options.
+     *
+     * @param version version of the analysis and the encoding of its
+     *                results, which should be increased when either of
+     *                them changes, so that the stale results are not used.
+     * @return the cache, or null if option {@code cache-dir} is not given.
+     */
+    public static ResultCache open(String id, int version,
+                                   AnalysisOptions options) {
+        String dir = options.getString("cache-dir");
+        if (dir == null) {
+            return null;
+        }
+        try {
+            String salt = MAGIC + "/" + id + "/" + version + "/" + options;
+            ResultCache cache = new ResultCache(id,
+                    Path.of(dir, id + ".cache"),
+                    hash(salt.getBytes(StandardCharsets.UTF_8)));
+            caches.add(cache);
+            return cache;
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to open result cache of " + id, e);
+        }
+    }
+
+    /**
+     * Loads the records from the cache file. The file written by a
+     * previous version is discarded, and the incomplete record at the end
+     * of the file (written by an interrupted run) is truncated.
+     */
+    private void load() throws IOException {
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                logger.warn("Discard incompatible result cache {}", file);
+                Files.delete(file);
+                return;
+            }
+            validLength = Integer.BYTES;
+            while (true) {
+                byte[] key = new byte[KEY_LENGTH];
+                in.readFully(key);
+                byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                entries.put(ByteBuffer.wrap(key), value);
+                validLength += KEY_LENGTH + Integer.BYTES + value.length;
+            }
+        } catch (EOFException e) {
+            // reach the end of the file (or an incomplete record)
+        }
+        if (Files.size(file) > validLength) {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    /**
+     * @return the result of given IR in the cache if present, otherwise
+     * computes the result by {@code analysis} and puts it into the cache.
+     */
+    public <R> R getOrCompute(IR ir, Function<IR, R> analysis,
+                              Encoder<R> encoder, Decoder<R> decoder) {
+        ByteBuffer key = keyOf(ir);
+        byte[] value = entries.get(key);
+        if (value != null) {
+            try {
+                R result = decoder.decode(ir,
+                        new DataInputStream(new ByteArrayInputStream(value)));
+                hits.increment();
+                return result;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to decode cached {} result of {}, recompute it",
+                        id, ir.getMethod(), e);
+            }
+        }
+        misses.increment();
+        R result = analysis.apply(ir);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            encoder.encode(result, ir, new DataOutputStream(bytes));
+            put(key, bytes.toByteArray());
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to write result cache of " + id, e);
+        }
+        return result;
+    }
+
+    private void put(ByteBuffer key, byte[] value) throws IOException {
+        entries.put(key, value);
+        synchronized (writer) {
+            writer.write(key.array());
+            writer.writeInt(value.length);
+            writer.write(value);
+            writer.flush();
+        }
+    }
+
+    /**
+     * @return the key of the result of given IR.
+     */
+    private ByteBuffer keyOf(IR ir) {
+        MessageDigest digest = newDigest();
+        digest.update(salt);
+        PrintStream out = new PrintStream(new DigestOutputStream(
+                OutputStream.nullOutputStream(), digest),
+                false, StandardCharsets.UTF_8);
+        IRPrinter.print(ir, out);
+        printCFG(ir.getResult(CFGBuilder.ID), out);
+        out.flush();
+        return ByteBuffer.wrap(digest.digest());
+    }
+
+    /**
+     * Prints the edges of given CFG in a deterministic order.
+     */
+    private static void printCFG(CFG<Stmt> cfg, PrintStream out) {
+        cfg.getNodes()
+                .stream()
+                .sorted(Comparator.comparingInt(Stmt::getIndex))
+                .forEach(node -> cfg.getOutEdgesOf(node)
+                        .stream()
+                        .map(ResultCache::toString)
+                        .sorted()
+                        .forEach(out::println));
+    }
+
+    private static String toString(Edge<Stmt> edge) {
+        StringBuilder builder = new StringBuilder()
+                .append(edge.getSource().getIndex())
+                .append(' ').append(edge.getKind())
+                .append(' ').append(edge.getTarget().getIndex());
+        if (edge.isSwitchCase()) {
+            builder.append(' ').append(edge.getCaseValue());
+        } else if (edge.isExceptional()) {
+            edge.getExceptions()
+                    .stream()
+                    .map(Object::toString)
+                    .sorted()
+                    .forEach(e -> builder.append(' ').append(e));
+        }
+        return builder.toString();
+    }
+
+    private static byte[] hash(byte[] bytes) {
+        return newDigest().digest(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AnalysisException(e);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the total number of hits of the caches of given analysis
+     * in this JVM, including the caches closed by {@link #closeAll()}.
+     */
+    public static long getTotalHits(String id) {
+        return closedHits.getOrDefault(id, 0L) + caches.stream()
+                .filter(cache -> cache.id.equals(id))
+                .mapToLong(ResultCache::getHits)
+                .sum();
+    }
+
+    /**
+     * Logs the numbers of hits and misses of all opened caches.
+     */
+    public static void logStatistics() {
+        caches.forEach(cache -> logger.info(
+                "Result cache of {}: {} hits, {} misses ({})",
+                cache.id, cache.getHits(), cache.getMisses(), cache.file));
+    }
+
+    /**
+     * Closes all opened caches, and forgets them, so that they are
+     * neither kept in memory nor logged by the subsequent runs.
+     */
+    public static void closeAll() {
+        caches.forEach(ResultCache::close);
+        caches.clear();
+    }
+
+    private void close() {
+        closedHits.merge(id, getHits(), Long::sum);
+        entries.clear();
+        synchronized (writer) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close result cache {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Encodes the result of an IR.
+     */
+    @FunctionalInterface
+    public interface Encoder<R> {
+        void encode(R result, IR ir, DataOutput out) throws IOException;
+    }
+
+    /**
+     * Decodes the result of an IR, which is encoded by {@link Encoder}.
+     */
+    @FunctionalInterface
+    public interface Decoder<R> {
+        R decode(IR ir, DataInput in) throws IOException;
+    }
+}
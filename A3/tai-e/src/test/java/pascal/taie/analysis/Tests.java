@@ -25,11 +25,17 @@ package pascal.taie.analysis;
 import org.junit.Assert;
 import pascal.taie.Main;
 import pascal.taie.World;
+import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -61,6 +67,29 @@ public final class Tests {
      * @param opts      options for the analysis
      */
     public static void test(String main, String classPath, String id, String... opts) {
+        doTest(main, classPath, id, getExpectedFile(classPath, main, id), opts);
+    }
+
+    /**
+     * Starts an analysis for a specific test case, and compares its results
+     * with the expected file of given variant of the analysis, i.e.,
+     * {@code <main>-<id>-<variant>-expected.txt}. This is used when some
+     * options of the analysis change its results.
+     *
+     * @param main      the main class to be analyzed
+     * @param classPath where the main class is located
+     * @param id        ID of the analysis to be executed
+     * @param variant   name of the variant of the analysis
+     * @param opts      options for the analysis
+     */
+    public static void testVariant(String main, String classPath, String id,
+                                   String variant, String... opts) {
+        doTest(main, classPath, id,
+                getExpectedFile(classPath, main, id + "-" + variant), opts);
+    }
+
+    private static void doTest(String main, String classPath, String id,
+                               String file, String... opts) {
         List<String> args = new ArrayList<>();
         args.add("-pp");
         Collections.addAll(args, "-cp", classPath);
@@ -82,7 +111,6 @@ public final class Tests {
         }
         // set up result processor
         String action = GENERATE_EXPECTED_RESULTS ? "dump" : "compare";
-        String file = getExpectedFile(classPath, main, id);
         String processArg = String.format("%s=analyses:[%s];action:%s;file:%s",
                 ResultProcessor.ID, id, action, file);
         Collections.addAll(args, "-a", processArg);
@@ -95,6 +123,30 @@ public final class Tests {
         }
     }
 
+    /**
+     * Builds the world for given classes, and then builds the CFGs of
+     * their methods, for testing the analyses on CFGs directly.
+     *
+     * @param classPath where the classes are located
+     * @param classes   names of the classes
+     * @return the CFGs of the non-abstract methods of given classes.
+     */
+    public static List<CFG<Stmt>> buildCFGs(String classPath, List<String> classes) {
+        Main.buildWorld("-pp", "-cp", classPath, "-m", classes.get(0));
+        CFGBuilder builder = new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                "exception", "none", "dump", false));
+        return World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .filter(c -> classes.contains(c.getName()))
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .map(builder::analyze)
+                .toList();
+    }
+
     public static void testPTA(String dir, String main, String... opts) {
         doTestPTA("pta", dir, main, opts);
     }
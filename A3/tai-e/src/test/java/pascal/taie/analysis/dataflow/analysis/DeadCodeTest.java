@@ -22,14 +22,46 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
+import pascal.taie.util.ResultCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
 
 public class DeadCodeTest {
 
     void testDCD(String inputClass) {
+        testDCD(inputClass, "strongly:false", "edge-refine:false");
+    }
+
+    void testDCD(String inputClass, String livevarOpts, String constpropOpts) {
+        testDCD(inputClass, "algorithm:standard", livevarOpts, constpropOpts);
+    }
+
+    void testDCD(String inputClass, String deadcodeOpts,
+                 String livevarOpts, String constpropOpts) {
         Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
-                DeadCodeDetection.ID,
+                DeadCodeDetection.ID, deadcodeOpts,
+                "-a", "livevar=" + livevarOpts,
+                "-a", "constprop=" + constpropOpts);
+    }
+
+    void testFusedDCD(String inputClass, String... deadcodeOpts) {
+        Tests.testVariant(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID, "fused",
+                "algorithm:fused" + String.join("", deadcodeOpts));
+    }
+
+    void testIntervalDCD(String inputClass, String variant, String deadcodeOpts) {
+        Tests.testVariant(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID, variant,
+                "algorithm:standard;interval:true" + deadcodeOpts,
                 "-a", "livevar=strongly:false",
                 "-a", "constprop=edge-refine:false");
     }
@@ -58,4 +90,114 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testDeadAssignmentWithBitSet() {
+        testDCD("DeadAssignment", "strongly:false;fact:bitset",
+                "edge-refine:false");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchWithPackedFact() {
+        testDCD("UnreachableSwitchBranch", "strongly:false",
+                "edge-refine:false;fact:packed");
+    }
+
+    @Test
+    public void testLoopsWithPriorityWorkList() {
+        testDCD("Loops", "strongly:false;worklist:priority",
+                "edge-refine:false;worklist:priority");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchWithSparseConstantPropagation() {
+        testDCD("UnreachableSwitchBranch", "strongly:false",
+                "edge-refine:false;algorithm:sparse");
+    }
+
+    @Test
+    public void testLoopsWithCompactResult() {
+        testDCD("Loops", "strongly:false;compact:true",
+                "edge-refine:false;granularity:block;compact:true");
+    }
+
+    @Test
+    public void testUnreachableUse() {
+        testDCD("UnreachableUse");
+    }
+
+    @Test
+    public void testFusedAlgorithm() {
+        for (String inputClass : new String[]{"ControlFlowUnreachable",
+                "UnreachableIfBranch", "UnreachableSwitchBranch",
+                "DeadAssignment", "Loops"}) {
+            testFusedDCD(inputClass);
+        }
+        // the fused algorithm ignores the use in unreachable branch,
+        // thus it finds one more dead assignment
+        testFusedDCD("UnreachableUse");
+        // constprop and livevar are not scheduled for the fused algorithm
+        World.get().getClassHierarchy()
+                .getClass("UnreachableUse")
+                .getDeclaredMethods()
+                .forEach(m -> {
+                    Collection<String> keys = m.getIR().getKeys();
+                    Assert.assertFalse(keys.contains(ConstantPropagation.ID));
+                    Assert.assertFalse(keys.contains(LiveVariableAnalysis.ID));
+                    Assert.assertTrue(keys.contains(DeadCodeDetection.ID));
+                });
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchWithConditionalConstantPropagation() {
+        testDCD("UnreachableSwitchBranch", "strongly:false",
+                "edge-refine:false;algorithm:conditional");
+    }
+
+    @Test
+    public void testLoopsWithResultCache() throws IOException {
+        String cache = ";cache-dir:" +
+                Files.createTempDirectory("result-cache");
+        // the first run fills the cache, and the second run reads it
+        testFusedDCD("Loops", cache);
+        long hits = ResultCache.getTotalHits(DeadCodeDetection.ID);
+        testFusedDCD("Loops", cache);
+        Assert.assertTrue(ResultCache.getTotalHits(DeadCodeDetection.ID) > hits);
+    }
+
+    @Test
+    public void testLoopsWithSolverMetrics() {
+        SolverMetrics.clear();
+        testDCD("Loops", "strongly:false;metrics:true",
+                "edge-refine:false;granularity:block;metrics:true");
+        for (String id : new String[]{
+                LiveVariableAnalysis.ID, ConstantPropagation.ID}) {
+            Assert.assertTrue(SolverMetrics.getEntries().stream()
+                    .anyMatch(e -> e.getAnalysis().equals(id)
+                            && e.getVisits() > 0 && e.getMeets() > 0
+                            && e.getMaxFactSize() > 0));
+        }
+        SolverMetrics.clear();
+    }
+
+    @Test
+    public void testIntervalLoops() {
+        // constant propagation cannot decide the conditions on
+        // the variables assigned in the loops
+        testDCD("IntervalLoops");
+    }
+
+    @Test
+    public void testIntervalLoopsWithIntervals() {
+        // i is [0, MAX] after the loop, thus i < 0 never holds;
+        // x is widened to [0, MAX] at the loop head, thus x > 2 may hold
+        testIntervalDCD("IntervalLoops", "interval", "");
+    }
+
+    @Test
+    public void testIntervalLoopsWithDelayedWidening() {
+        // x is [0, 2] at the loop head before it is widened,
+        // which is stable, thus x > 2 never holds
+        testIntervalDCD("IntervalLoops", "interval-delayed", ";widening-delay:2");
+    }
 }
@@ -0,0 +1,175 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Tests the executable edges and the facts of
+ * {@link ConditionalConstantPropagation}.
+ */
+public class ConditionalConstantPropagationTest {
+
+    private static final String RESOURCES = "src/test/resources/dataflow/deadcode";
+
+    private static final List<String> CLASSES = List.of(
+            "ControlFlowUnreachable", "DeadAssignment", "IntervalLoops",
+            "Loops", "UnreachableIfBranch", "UnreachableSwitchBranch");
+
+    private static ConstantPropagation newConstantPropagation() {
+        return new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+    }
+
+    private static CFG<Stmt> getCFG(String className, String methodName) {
+        return Tests.buildCFGs(RESOURCES, List.of(className))
+                .stream()
+                .filter(cfg -> cfg.getMethod().getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static <S extends Stmt> S getStmt(CFG<Stmt> cfg, Class<S> stmtClass) {
+        return cfg.getNodes()
+                .stream()
+                .filter(stmtClass::isInstance)
+                .map(stmtClass::cast)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    public void testIfBranch() {
+        CFG<Stmt> cfg = getCFG("UnreachableIfBranch", "branch");
+        ConstantPropagation cp = newConstantPropagation();
+        ConditionalConstantPropagation.Result result =
+                ConditionalConstantPropagation.solve(cfg, cp);
+        // x > y always holds, thus only the true branch is executable
+        If ifStmt = getStmt(cfg, If.class);
+        for (Edge<Stmt> edge : cfg.getOutEdgesOf(ifStmt)) {
+            Assert.assertEquals(edge.getKind() == Edge.Kind.IF_TRUE,
+                    result.isExecutable(edge));
+            Assert.assertEquals(result.isExecutable(edge),
+                    result.isReachable(edge.getTarget()));
+        }
+        // z is NAC at the return in dense constant propagation,
+        // as it meets 100 and 200 from both branches, while
+        // it is 100 in conditional constant propagation
+        Return ret = getStmt(cfg, Return.class);
+        Var z = ret.getValue();
+        DataflowResult<Stmt, CPFact> dense = Solver.makeSolver(cp).solve(cfg);
+        Assert.assertTrue(dense.getInFact(ret).get(z).isNAC());
+        Assert.assertEquals(Value.makeConstant(100), result.getInFact(ret).get(z));
+    }
+
+    @Test
+    public void testSwitchBranch() {
+        CFG<Stmt> cfg = getCFG("UnreachableSwitchBranch", "lookupSwitch");
+        ConditionalConstantPropagation.Result result =
+                ConditionalConstantPropagation.solve(cfg, newConstantPropagation());
+        // y is 8, thus only the edge of case 8 is executable
+        SwitchStmt switchStmt = getStmt(cfg, SwitchStmt.class);
+        Set<Edge<Stmt>> edges = cfg.getOutEdgesOf(switchStmt)
+                .stream()
+                .filter(result::isExecutable)
+                .collect(Collectors.toSet());
+        Assert.assertEquals(1, edges.size());
+        Edge<Stmt> edge = edges.iterator().next();
+        Assert.assertTrue(edge.isSwitchCase());
+        Assert.assertEquals(8, edge.getCaseValue());
+    }
+
+    @Test
+    public void testExecutableEdges() {
+        for (CFG<Stmt> cfg : Tests.buildCFGs(RESOURCES, CLASSES)) {
+            ConditionalConstantPropagation.Result result =
+                    ConditionalConstantPropagation.solve(cfg, newConstantPropagation());
+            for (Stmt stmt : cfg) {
+                String message = cfg.getMethod() + " " + stmt;
+                // a statement is reachable iff it is the entry,
+                // or one of its in edges is executable
+                Assert.assertEquals(message, result.isReachable(stmt),
+                        cfg.isEntry(stmt) || cfg.getInEdgesOf(stmt)
+                                .stream().anyMatch(result::isExecutable));
+                // the out edges of unreachable statements are not executable,
+                // and the executable edges include all out edges of the
+                // reachable statements which are not branches
+                for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                    if (!result.isReachable(stmt)) {
+                        Assert.assertFalse(message, result.isExecutable(edge));
+                    } else if (!(stmt instanceof If)
+                            && !(stmt instanceof SwitchStmt)) {
+                        Assert.assertTrue(message, result.isExecutable(edge));
+                    }
+                }
+                Assert.assertEquals(message,
+                        cfg.getOutEdgesOf(stmt).stream()
+                                .filter(result::isExecutable).count(),
+                        result.getExecutableEdges().stream()
+                                .filter(e -> e.getSource() == stmt).count());
+            }
+        }
+    }
+
+    @Test
+    public void testFactsRefineDenseFacts() {
+        ConstantPropagation cp = newConstantPropagation();
+        Solver<Stmt, CPFact> solver = Solver.makeSolver(cp);
+        for (CFG<Stmt> cfg : Tests.buildCFGs(RESOURCES, CLASSES)) {
+            DataflowResult<Stmt, CPFact> dense = solver.solve(cfg);
+            ConditionalConstantPropagation.Result result =
+                    ConditionalConstantPropagation.solve(cfg, cp);
+            for (Stmt stmt : cfg) {
+                String message = cfg.getMethod() + " " + stmt;
+                if (!result.isReachable(stmt)) {
+                    Assert.assertEquals(message,
+                            cp.newInitialFact(), result.getInFact(stmt));
+                    Assert.assertEquals(message,
+                            cp.newInitialFact(), result.getOutFact(stmt));
+                    continue;
+                }
+                // the value of each variable is at least as precise as
+                // its value in dense constant propagation
+                CPFact in = dense.getInFact(stmt);
+                result.getInFact(stmt).forEach((var, value) ->
+                        Assert.assertEquals(message + " " + var, in.get(var),
+                                cp.meetValue(value, in.get(var))));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class PackedCPFactTest {
+
+    private static final Var X = new Var(null, "x", PrimitiveType.INT, 0);
+
+    private static final Var Y = new Var(null, "y", PrimitiveType.INT, 40);
+
+    private static final Var Z = new Var(null, "z", PrimitiveType.INT, 2);
+
+    private static <F extends CPFact> F fill(F fact) {
+        fact.update(X, Value.makeConstant(1));
+        fact.update(Y, Value.getNAC());
+        return fact;
+    }
+
+    private static Map<Var, Value> toMap(CPFact fact) {
+        return fact.entries().collect(
+                Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    @Test
+    public void testCopyFromPacked() {
+        PackedCPFact packed = fill(new PackedCPFact());
+        CPFact fact = new CPFact();
+        Assert.assertTrue(fact.copyFrom(packed));
+        Assert.assertFalse(fact.copyFrom(packed));
+        Assert.assertEquals(fill(new CPFact()), fact);
+        Assert.assertEquals(packed.toString(), fact.toString());
+
+        fact = new CPFact();
+        Assert.assertTrue(fact.copyFrom(packed, X, Value.makeConstant(2)));
+        Assert.assertEquals(Value.makeConstant(2), fact.get(X));
+        Assert.assertEquals(Value.getNAC(), fact.get(Y));
+    }
+
+    @Test
+    public void testCopyFromPlain() {
+        CPFact fact = fill(new CPFact());
+        PackedCPFact packed = new PackedCPFact();
+        Assert.assertTrue(packed.copyFrom(fact));
+        Assert.assertFalse(packed.copyFrom(fact));
+        Assert.assertEquals(fill(new PackedCPFact()), packed);
+        Assert.assertEquals(fact.toString(), packed.toString());
+
+        packed = new PackedCPFact();
+        Assert.assertTrue(packed.copyFrom(fact, Z, Value.makeConstant(3)));
+        Assert.assertEquals(3, packed.size());
+        Assert.assertEquals(Value.makeConstant(3), packed.get(Z));
+    }
+
+    @Test
+    public void testMixedKinds() {
+        // facts of different kinds are not equal even with the same content
+        Assert.assertNotEquals(fill(new CPFact()), fill(new PackedCPFact()));
+        Assert.assertNotEquals(fill(new PackedCPFact()), fill(new CPFact()));
+        Assert.assertEquals(toMap(fill(new CPFact())), toMap(fill(new PackedCPFact())));
+    }
+}
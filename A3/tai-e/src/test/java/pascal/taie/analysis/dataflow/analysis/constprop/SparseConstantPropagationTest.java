@@ -0,0 +1,82 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tests {@link SparseConstantPropagation} by comparing the facts it
+ * reconstructs with the facts of the dense analysis.
+ */
+public class SparseConstantPropagationTest {
+
+    private static final String RESOURCES = "src/test/resources/dataflow/deadcode";
+
+    private static final List<String> CLASSES = List.of(
+            "ControlFlowUnreachable", "DeadAssignment", "IntervalLoops",
+            "Loops", "UnreachableIfBranch", "UnreachableSwitchBranch");
+
+    @Test
+    public void testFacts() {
+        Main.buildWorld("-pp", "-cp", RESOURCES, "-m", CLASSES.get(0));
+        CFGBuilder builder = new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                "exception", "none", "dump", false));
+        Solver<Stmt, CPFact> solver = Solver.makeSolver(new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID)));
+        World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .filter(c -> CLASSES.contains(c.getName()))
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .forEach(ir -> {
+                    CFG<Stmt> cfg = builder.analyze(ir);
+                    DataflowResult<Stmt, CPFact> expected = solver.solve(cfg);
+                    NodeResult<Stmt, CPFact> result = SparseConstantPropagation.solve(cfg);
+                    for (Stmt stmt : cfg) {
+                        String message = cfg.getMethod() + " " + stmt;
+                        Assert.assertEquals(message,
+                                expected.getInFact(stmt), result.getInFact(stmt));
+                        Assert.assertEquals(message,
+                                expected.getOutFact(stmt), result.getOutFact(stmt));
+                    }
+                });
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.ir.exp.Var;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class BitSetFactTest {
+
+    private static final Var[] VARS = new Var[100];
+
+    static {
+        for (int i = 0; i < VARS.length; ++i) {
+            VARS[i] = new Var(null, "v" + i, null, i);
+        }
+    }
+
+    private static BitSetFact<Var> fact(int... indexes) {
+        BitSetFact<Var> fact = new BitSetFact<>();
+        for (int i : indexes) {
+            fact.add(VARS[i]);
+        }
+        return fact;
+    }
+
+    @Test
+    public void testOperations() {
+        BitSetFact<Var> a = fact(1, 70);
+        Assert.assertFalse(a.add(VARS[1]));
+        Assert.assertTrue(a.contains(VARS[70]));
+        Assert.assertTrue(a.union(fact(2, 70)));
+        Assert.assertFalse(a.union(fact(2)));
+        Assert.assertEquals(fact(1, 2, 70), a);
+        Assert.assertTrue(a.intersect(fact(2, 70, 99)));
+        Assert.assertEquals(List.of(VARS[2], VARS[70]), a.stream().toList());
+        Assert.assertTrue(a.removeIf(v -> v.getIndex() > 50));
+        Assert.assertFalse(a.remove(VARS[70]));
+        Assert.assertEquals(1, a.size());
+    }
+
+    @Test
+    public void testCopy() {
+        BitSetFact<Var> a = fact(1);
+        BitSetFact<Var> b = a.copy();
+        // the copies share the element table, which grows in place
+        b.add(VARS[99]);
+        Assert.assertEquals(fact(1), a);
+        a.union(b);
+        Assert.assertEquals(List.of(VARS[1], VARS[99]), a.stream().toList());
+        a.set(fact(3));
+        Assert.assertEquals(fact(3), a);
+        Assert.assertEquals(fact(1, 99), b);
+    }
+
+    @Test
+    public void testEqualsSetFact() {
+        SetFact<Var> set = new SetFact<>(List.of(VARS[5], VARS[60]));
+        BitSetFact<Var> bitSet = fact(60, 5);
+        Assert.assertEquals(set, bitSet);
+        Assert.assertEquals(bitSet, set);
+        Assert.assertEquals(set.hashCode(), bitSet.hashCode());
+        Assert.assertTrue(bitSet.union(new SetFact<>(List.of(VARS[7]))));
+        Assert.assertNotEquals(set, bitSet);
+        Assert.assertTrue(bitSet.intersect(set));
+        Assert.assertEquals(set, bitSet);
+    }
+
+    @Test
+    public void testMixedOperations() {
+        SetFact<Var> set = new SetFact<>(List.of(VARS[1]));
+        Assert.assertTrue(set.union(fact(2, 3)));
+        Assert.assertFalse(set.union(fact(3)));
+        Assert.assertEquals(set, fact(1, 2, 3));
+        Assert.assertTrue(set.intersect(fact(2, 3, 4)));
+        Assert.assertEquals(set, fact(2, 3));
+        set.set(fact(5));
+        Assert.assertEquals(set, fact(5));
+        Assert.assertEquals(set.unionWith(fact(6)), fact(5, 6));
+        Assert.assertEquals(set.intersectWith(fact(6)), fact());
+    }
+
+    @Test
+    public void testNoSetStorage() {
+        // BitSetFact does not allocate the set of SetFact
+        Assert.assertSame(Collections.emptySet(), fact(1).set);
+        Assert.assertSame(Collections.emptySet(), fact(1).copy().set);
+    }
+
+    /**
+     * Applies the same random operations on {@link SetFact}s and
+     * {@link BitSetFact}s, and compares their results. The arguments
+     * of the operations are randomly taken from the facts of either kind.
+     */
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        int n = 4;
+        List<SetFact<Var>> sets = new ArrayList<>();
+        List<SetFact<Var>> bitSets = new ArrayList<>();
+        for (int i = 0; i < n; ++i) {
+            sets.add(new SetFact<>());
+            bitSets.add(new BitSetFact<>());
+        }
+        for (int step = 0; step < 10000; ++step) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            Var v = VARS[random.nextInt(VARS.length)];
+            SetFact<Var> s = sets.get(x);
+            SetFact<Var> b = bitSets.get(x);
+            // the facts of the other kind have the same elements
+            boolean mixed = random.nextBoolean();
+            List<SetFact<Var>> sArgs = mixed ? bitSets : sets;
+            List<SetFact<Var>> bArgs = mixed ? sets : bitSets;
+            switch (random.nextInt(7)) {
+                case 0 -> Assert.assertEquals(s.add(v), b.add(v));
+                case 1 -> Assert.assertEquals(s.remove(v), b.remove(v));
+                case 2 -> Assert.assertEquals(s.union(sArgs.get(y)),
+                        b.union(bArgs.get(y)));
+                case 3 -> Assert.assertEquals(s.intersect(sArgs.get(y)),
+                        b.intersect(bArgs.get(y)));
+                case 4 -> {
+                    s.set(sArgs.get(y));
+                    b.set(bArgs.get(y));
+                }
+                case 5 -> {
+                    sets.set(x, sets.get(y).copy());
+                    bitSets.set(x, bitSets.get(y).copy());
+                }
+                default -> Assert.assertEquals(
+                        s.removeIf(e -> e.getIndex() % 3 == 0),
+                        b.removeIf(e -> e.getIndex() % 3 == 0));
+            }
+            for (int i = 0; i < n; ++i) {
+                Assert.assertEquals(sets.get(i), bitSets.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class FactTableTest {
+
+    private static SetFact<Integer> fact(Integer... elems) {
+        return new SetFact<>(List.of(elems));
+    }
+
+    @Test
+    public void testIntern() {
+        FactTable<SetFact<Integer>> table = new FactTable<>();
+        SetFact<Integer> a = fact(1, 2);
+        SetFact<Integer> b = fact(3);
+        Assert.assertSame(a, table.intern(a));
+        Assert.assertSame(a, table.intern(fact(1, 2)));
+        Assert.assertSame(b, table.intern(b));
+        Assert.assertEquals(2, table.size());
+        Assert.assertEquals(0, table.getId(a));
+        Assert.assertEquals(1, table.getId(b));
+        Assert.assertSame(b, table.getFact(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetIdOfNonCanonicalFact() {
+        FactTable<SetFact<Integer>> table = new FactTable<>();
+        table.intern(fact(1));
+        table.getId(fact(1));
+    }
+
+    @Test
+    public void testTrim() {
+        FactTable<SetFact<Integer>> table = new FactTable<>();
+        SetFact<Integer> a = table.intern(fact(1));
+        table.trim();
+        Assert.assertSame(a, table.intern(a));
+        // equal facts are still found after trimming
+        Assert.assertSame(a, table.intern(fact(1)));
+        SetFact<Integer> b = table.intern(fact(2));
+        Assert.assertEquals(1, table.getId(b));
+        Assert.assertSame(b, table.intern(fact(2)));
+    }
+
+    @Test
+    public void testCompact() {
+        // nodes 0 and 1 are kept in arrays, and node 2 is kept in maps
+        DataflowResult<Integer, SetFact<Integer>> result =
+                new DataflowResult<>(n -> n, 2);
+        for (int node = 0; node <= 2; ++node) {
+            result.setInFact(node, fact(node % 2));
+            result.setOutFact(node, fact(1));
+        }
+        Assert.assertFalse(result.isCompact());
+        result.compact();
+        Assert.assertTrue(result.isCompact());
+        Assert.assertSame(result.getInFact(0), result.getInFact(2));
+        Assert.assertSame(result.getInFact(1), result.getOutFact(0));
+        Assert.assertSame(result.getOutFact(1), result.getOutFact(2));
+        Assert.assertEquals(2, result.getFactTable().size());
+        Assert.assertEquals(result.getInFactId(1), result.getOutFactId(2));
+        Assert.assertNotEquals(result.getInFactId(0), result.getOutFactId(0));
+        // the facts set after compacting are interned as well
+        result.setInFact(2, fact(1));
+        Assert.assertSame(result.getOutFact(0), result.getInFact(2));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFactIdOfNonCompactResult() {
+        DataflowResult<Integer, SetFact<Integer>> result = new DataflowResult<>();
+        result.setInFact(0, fact());
+        result.getInFactId(0);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link BlockSolver} by comparing the facts it replays inside
+ * the blocks with the facts of solving the statement CFGs.
+ */
+public class BlockSolverTest {
+
+    private static final String RESOURCES = "src/test/resources/dataflow/deadcode";
+
+    private static final List<String> CLASSES = List.of(
+            "ControlFlowUnreachable", "DeadAssignment", "Loops",
+            "UnreachableIfBranch", "UnreachableSwitchBranch");
+
+    private static <Fact> void testReplay(
+            DataflowAnalysis<Stmt, Fact> analysis, Map<String, Object> options) {
+        Solver<Stmt, Fact> solver = Solver.makeSolver(analysis);
+        BlockSolver<Fact> blockSolver = new BlockSolver<>(
+                analysis, new AnalysisOptions(options));
+        for (CFG<Stmt> cfg : Tests.buildCFGs(RESOURCES, CLASSES)) {
+            DataflowResult<Stmt, Fact> expected = solver.solve(cfg);
+            NodeResult<Stmt, Fact> result = blockSolver.solve(cfg);
+            // query the statements in reverse order, so that the blocks
+            // are replayed against their direction as well
+            List<Stmt> stmts = new ArrayList<>(cfg.getNodes());
+            Collections.reverse(stmts);
+            for (Stmt stmt : stmts) {
+                String message = cfg.getMethod() + " " + stmt;
+                Assert.assertEquals(message,
+                        expected.getInFact(stmt), result.getInFact(stmt));
+                Assert.assertEquals(message,
+                        expected.getOutFact(stmt), result.getOutFact(stmt));
+            }
+        }
+    }
+
+    @Test
+    public void testConstantPropagation() {
+        testReplay(new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID)), Map.of());
+    }
+
+    @Test
+    public void testConstantPropagationWithWTOSolver() {
+        testReplay(new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID)), Map.of("solver", "wto"));
+    }
+
+    @Test
+    public void testLiveVariables() {
+        testReplay(new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID)), Map.of());
+    }
+
+    @Test
+    public void testLiveVariablesWithPriorityWorkList() {
+        testReplay(new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID)), Map.of("worklist", "priority"));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.analysis.graph.cfg.EditedCFG;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests {@link Solver#resolve} by comparing its results with the results
+ * of solving the edited CFGs from scratch.
+ */
+public class IncrementalSolverTest {
+
+    private static final String RESOURCES = "src/test/resources/dataflow/deadcode";
+
+    private static final List<String> CLASSES = List.of(
+            "ControlFlowUnreachable", "DeadAssignment", "Loops",
+            "UnreachableIfBranch", "UnreachableSwitchBranch");
+
+    /**
+     * Number of random edits of each CFG.
+     */
+    private static final int EDITS = 10;
+
+    /**
+     * @return the CFGs of the methods in the test resources.
+     */
+    private static List<CFG<Stmt>> buildCFGs() {
+        Main.buildWorld("-pp", "-cp", RESOURCES, "-m", CLASSES.get(0));
+        CFGBuilder builder = new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                "exception", "none", "dump", false));
+        return World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .filter(c -> CLASSES.contains(c.getName()))
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .map(builder::analyze)
+                .toList();
+    }
+
+    private static <Fact> void testResolve(
+            DataflowAnalysis<Stmt, Fact> analysis, Map<String, Object> options,
+            boolean removeNodes) {
+        Solver<Stmt, Fact> solver = Solver.makeSolver(
+                analysis, new AnalysisOptions(options));
+        Random random = new Random(0);
+        for (CFG<Stmt> cfg : buildCFGs()) {
+            for (int i = 0; i < EDITS; ++i) {
+                Set<Stmt> removedNodes = Sets.newSet();
+                Set<Edge<Stmt>> removedEdges = Sets.newSet();
+                Set<Stmt> changed = Sets.newSet();
+                for (Stmt stmt : cfg) {
+                    if (cfg.isEntry(stmt) || cfg.isExit(stmt)) {
+                        continue;
+                    }
+                    if (removeNodes) {
+                        if (random.nextInt(4) == 0) {
+                            removedNodes.add(stmt);
+                            changed.add(stmt);
+                        }
+                    } else if (cfg.getOutDegreeOf(stmt) > 1
+                            && random.nextInt(2) == 0) {
+                        List<Edge<Stmt>> edges = new ArrayList<>(cfg.getOutEdgesOf(stmt));
+                        Edge<Stmt> edge = edges.get(random.nextInt(edges.size()));
+                        removedEdges.add(edge);
+                        changed.add(edge.getSource());
+                        changed.add(edge.getTarget());
+                    }
+                }
+                CFG<Stmt> edited = new EditedCFG(cfg, removedNodes, removedEdges);
+                DataflowResult<Stmt, Fact> result = solver.resolve(
+                        cfg, edited, solver.solve(cfg), changed);
+                DataflowResult<Stmt, Fact> expected = solver.solve(edited);
+                for (Stmt stmt : edited) {
+                    String message = cfg.getMethod() + " " + stmt;
+                    Assert.assertEquals(message,
+                            expected.getInFact(stmt), result.getInFact(stmt));
+                    Assert.assertEquals(message,
+                            expected.getOutFact(stmt), result.getOutFact(stmt));
+                }
+            }
+        }
+    }
+
+    private static ConstantPropagation newConstantPropagation() {
+        return new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+    }
+
+    private static LiveVariableAnalysis newLiveVariableAnalysis() {
+        return new LiveVariableAnalysis(new AnalysisConfig(LiveVariableAnalysis.ID));
+    }
+
+    @Test
+    public void testConstantPropagationAfterRemovingStmts() {
+        testResolve(newConstantPropagation(), Map.of(), true);
+    }
+
+    @Test
+    public void testConstantPropagationAfterRemovingEdges() {
+        testResolve(newConstantPropagation(),
+                Map.of("solver", "wto"), false);
+    }
+
+    @Test
+    public void testLiveVariablesAfterRemovingStmts() {
+        testResolve(newLiveVariableAnalysis(),
+                Map.of("worklist", "priority"), true);
+    }
+
+    @Test
+    public void testLiveVariablesAfterRemovingEdgesWithCompactResult() {
+        testResolve(newLiveVariableAnalysis(),
+                Map.of("compact", true), false);
+    }
+
+    @Test
+    public void testResolveWithoutChanges() {
+        Solver<Stmt, ?> solver = Solver.makeSolver(newConstantPropagation());
+        for (CFG<Stmt> cfg : buildCFGs()) {
+            testResolveWithoutChanges(solver, cfg);
+        }
+    }
+
+    private static <Fact> void testResolveWithoutChanges(
+            Solver<Stmt, Fact> solver, CFG<Stmt> cfg) {
+        DataflowResult<Stmt, Fact> result = solver.solve(cfg);
+        List<Fact> facts = new ArrayList<>();
+        cfg.forEach(stmt -> facts.add(result.getOutFact(stmt)));
+        Assert.assertSame(result, solver.resolve(cfg, cfg, result, Set.of()));
+        int i = 0;
+        for (Stmt stmt : cfg) {
+            Assert.assertSame(facts.get(i++), result.getOutFact(stmt));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.analysis.graph.cfg.NumberedCFG;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.util.graph.ReverseGraph;
+import pascal.taie.util.graph.WeakTopologicalOrder;
+import pascal.taie.util.graph.WeakTopologicalOrder.Element;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link WeakTopologicalOrder} and {@link WTOSolver}
+ * on small CFGs over numbered nodes.
+ */
+public class WTOSolverTest {
+
+    /**
+     * 0 -> {1, 2} -> 3, which has no cycles.
+     */
+    private static final CFG<Integer> DIAMOND = new NumberedCFG(
+            0, 1, 0, 2, 1, 3, 2, 3);
+
+    /**
+     * 0 -> 1 -> 2 -> 3 -> 4, where 1 is the head of the outer loop
+     * (3 -> 1), and 2 is the head of the inner loop (3 -> 2).
+     */
+    private static final CFG<Integer> NESTED_LOOPS = new NumberedCFG(
+            0, 1, 1, 2, 2, 3, 3, 2, 3, 1, 1, 4);
+
+    /**
+     * Analysis which collects the nodes on the paths from the entry
+     * (or to the exit, if backward) to each node, and counts the
+     * transfers of each node.
+     */
+    private static class PathAnalysis
+            implements DataflowAnalysis<Integer, SetFact<Integer>> {
+
+        private final boolean isForward;
+
+        private final int[] transfers;
+
+        private PathAnalysis(boolean isForward, CFG<Integer> cfg) {
+            this.isForward = isForward;
+            this.transfers = new int[cfg.getNumberOfNodes()];
+        }
+
+        @Override
+        public boolean isForward() {
+            return isForward;
+        }
+
+        @Override
+        public SetFact<Integer> newBoundaryFact(CFG<Integer> cfg) {
+            return new SetFact<>();
+        }
+
+        @Override
+        public SetFact<Integer> newInitialFact() {
+            return new SetFact<>();
+        }
+
+        @Override
+        public void meetInto(SetFact<Integer> fact, SetFact<Integer> target) {
+            target.union(fact);
+        }
+
+        @Override
+        public boolean transferNode(Integer node,
+                                    SetFact<Integer> in, SetFact<Integer> out) {
+            ++transfers[node];
+            SetFact<Integer> source = isForward ? in : out;
+            SetFact<Integer> target = isForward ? out : in;
+            boolean changed = target.union(source);
+            return target.add(node) || changed;
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Integer> edge) {
+            return false;
+        }
+
+        @Override
+        public SetFact<Integer> transferEdge(Edge<Integer> edge,
+                                             SetFact<Integer> nodeFact) {
+            return nodeFact;
+        }
+    }
+
+    @Test
+    public void testElements() {
+        // the acyclic CFG has no components, and its nodes
+        // are in topological order
+        List<Element<Integer>> elements =
+                new WeakTopologicalOrder<>(DIAMOND, 0).getElements();
+        Assert.assertEquals(4, elements.size());
+        Assert.assertTrue(elements.stream().noneMatch(Element::isComponent));
+        Assert.assertEquals(0, (int) elements.get(0).getNode());
+        Assert.assertEquals(3, (int) elements.get(3).getNode());
+        Assert.assertEquals("[0, (1 [(2 [3])]), 4]",
+                new WeakTopologicalOrder<>(NESTED_LOOPS, 0).getElements().toString());
+        // on the reversed CFG, 1 is the first node of the loops
+        // reached from the exit, thus it heads the outer loop
+        Assert.assertEquals("[4, (1 [(3 [2])]), 0]",
+                new WeakTopologicalOrder<>(new ReverseGraph<>(NESTED_LOOPS), 4)
+                        .getElements().toString());
+    }
+
+    @Test
+    public void testAcyclic() {
+        for (boolean isForward : new boolean[]{true, false}) {
+            PathAnalysis analysis = new PathAnalysis(isForward, DIAMOND);
+            solve(analysis, DIAMOND);
+            // each node of an acyclic CFG is transferred only once
+            for (int node = 0; node < 4; ++node) {
+                Assert.assertEquals(1, analysis.transfers[node]);
+            }
+        }
+    }
+
+    @Test
+    public void testNestedLoops() {
+        for (boolean isForward : new boolean[]{true, false}) {
+            PathAnalysis analysis = new PathAnalysis(isForward, NESTED_LOOPS);
+            solve(analysis, NESTED_LOOPS);
+            // the nodes out of the loops are transferred only once,
+            // after the loops are stable
+            Assert.assertEquals(1, analysis.transfers[0]);
+            Assert.assertEquals(1, analysis.transfers[4]);
+        }
+    }
+
+    /**
+     * Solves given analysis with the WTO solver, and checks its result
+     * against the result of the work-list solver.
+     */
+    private static void solve(PathAnalysis analysis, CFG<Integer> cfg) {
+        DataflowResult<Integer, SetFact<Integer>> result = Solver.makeSolver(
+                analysis, new AnalysisOptions(Map.of("solver", "wto")))
+                .solve(cfg);
+        DataflowResult<Integer, SetFact<Integer>> expected = Solver.makeSolver(
+                new PathAnalysis(analysis.isForward(), cfg)).solve(cfg);
+        for (Integer node : cfg) {
+            Assert.assertEquals(expected.getInFact(node), result.getInFact(node));
+            Assert.assertEquals(expected.getOutFact(node), result.getOutFact(node));
+        }
+    }
+}
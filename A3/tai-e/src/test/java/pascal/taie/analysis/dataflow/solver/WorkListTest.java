@@ -0,0 +1,93 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.NumberedCFG;
+import pascal.taie.util.AnalysisException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WorkListTest {
+
+    /**
+     * 0 -> 2 -> 1 -> 3, where the nodes are not added in topological order.
+     */
+    private static final CFG<Integer> CHAIN = new NumberedCFG(0, 2, 2, 1, 1, 3);
+
+    /**
+     * 0 -> 1 -> 2 -> 1 -> 3, where 1 is the head of a loop. The exit edge
+     * of the loop is added first, thus depth-first searches follow it first.
+     */
+    private static final CFG<Integer> LOOP = new NumberedCFG(0, 1, 1, 3, 1, 2, 2, 1);
+
+    private static List<Integer> drain(WorkList<Integer> workList) {
+        List<Integer> nodes = new ArrayList<>();
+        while (!workList.isEmpty()) {
+            nodes.add(workList.poll());
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testInitialOrder() {
+        Assert.assertEquals(List.of(0, 1, 2, 3),
+                drain(WorkList.Kind.FIFO.newWorkList(CHAIN, true)));
+        Assert.assertEquals(List.of(3, 2, 1, 0),
+                drain(WorkList.Kind.FIFO.newWorkList(CHAIN, false)));
+        // the priority work-list follows the edges in both directions
+        Assert.assertEquals(List.of(0, 2, 1, 3),
+                drain(WorkList.Kind.PRIORITY.newWorkList(CHAIN, true)));
+        Assert.assertEquals(List.of(3, 1, 2, 0),
+                drain(WorkList.Kind.PRIORITY.newWorkList(CHAIN, false)));
+    }
+
+    @Test
+    public void testReAdd() {
+        WorkList<Integer> fifo = WorkList.Kind.FIFO.newWorkList(LOOP, true);
+        WorkList<Integer> priority = WorkList.Kind.PRIORITY.newWorkList(LOOP, true);
+        for (WorkList<Integer> workList : List.of(fifo, priority)) {
+            Assert.assertEquals(0, (int) workList.poll());
+            Assert.assertEquals(1, (int) workList.poll());
+            Assert.assertEquals(2, (int) workList.poll());
+            // back edge 2 -> 1
+            Assert.assertTrue(workList.add(1));
+            Assert.assertFalse(workList.add(1));
+            Assert.assertFalse(workList.add(3));
+        }
+        // the FIFO work-list leaves the loop before iterating it again,
+        // while the priority work-list stabilizes the loop first
+        Assert.assertEquals(List.of(3, 1), drain(fifo));
+        Assert.assertEquals(List.of(1, 3), drain(priority));
+        Assert.assertEquals(5, fifo.getVisits());
+        Assert.assertEquals(5, priority.getVisits());
+    }
+
+    @Test(expected = AnalysisException.class)
+    public void testUnknownKind() {
+        WorkList.Kind.of("lifo");
+    }
+}
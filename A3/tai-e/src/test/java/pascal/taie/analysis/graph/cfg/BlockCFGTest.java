@@ -0,0 +1,102 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.Tests;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.List;
+
+/**
+ * Tests that {@link BlockCFG} partitions the statements into basic blocks
+ * which start at the leaders, and connects the blocks by the edges of
+ * their boundary statements.
+ */
+public class BlockCFGTest {
+
+    private static final String RESOURCES = "src/test/resources/dataflow/deadcode";
+
+    private static final List<String> CLASSES = List.of(
+            "ControlFlowUnreachable", "DeadAssignment", "Loops",
+            "UnreachableIfBranch", "UnreachableSwitchBranch");
+
+    @Test
+    public void testBlocks() {
+        int nStmts = 0, nBlocks = 0;
+        for (CFG<Stmt> cfg : Tests.buildCFGs(RESOURCES, CLASSES)) {
+            BlockCFG blockCFG = new BlockCFG(cfg);
+            Assert.assertSame(cfg.getEntry(),
+                    blockCFG.getEntry().getFirstStmt());
+            Assert.assertEquals(1, blockCFG.getEntry().getStmts().size());
+            Assert.assertSame(cfg.getExit(),
+                    blockCFG.getExit().getFirstStmt());
+            Assert.assertEquals(1, blockCFG.getExit().getStmts().size());
+            int size = 0;
+            for (BasicBlock block : blockCFG) {
+                List<Stmt> stmts = block.getStmts();
+                size += stmts.size();
+                for (int i = 0; i < stmts.size(); ++i) {
+                    Stmt stmt = stmts.get(i);
+                    String message = cfg.getMethod() + " " + stmt;
+                    Assert.assertSame(message, block, blockCFG.getBlockOf(stmt));
+                    if (i > 0) {
+                        // only the first statement of a block may be a leader,
+                        // i.e., each other statement follows the previous one
+                        Stmt prev = stmts.get(i - 1);
+                        Assert.assertEquals(message,
+                                List.of(prev), List.copyOf(cfg.getPredsOf(stmt)));
+                        Assert.assertEquals(message,
+                                List.of(stmt), List.copyOf(cfg.getSuccsOf(prev)));
+                        Assert.assertFalse(message, cfg.isEntry(prev));
+                    }
+                }
+            }
+            // each statement is in exactly one block
+            Assert.assertEquals(cfg.getNumberOfNodes(), size);
+            nStmts += size;
+            nBlocks += blockCFG.getNumberOfNodes();
+        }
+        Assert.assertTrue(nBlocks < nStmts);
+    }
+
+    @Test
+    public void testEdges() {
+        for (CFG<Stmt> cfg : Tests.buildCFGs(RESOURCES, CLASSES)) {
+            BlockCFG blockCFG = new BlockCFG(cfg);
+            for (BasicBlock block : blockCFG) {
+                Assert.assertEquals(
+                        cfg.getOutDegreeOf(block.getLastStmt()),
+                        blockCFG.getOutDegreeOf(block));
+                for (Edge<BasicBlock> edge : blockCFG.getOutEdgesOf(block)) {
+                    Edge<Stmt> stmtEdge = blockCFG.getStmtEdge(edge);
+                    Assert.assertSame(block.getLastStmt(), stmtEdge.getSource());
+                    Assert.assertSame(edge.getTarget().getFirstStmt(),
+                            stmtEdge.getTarget());
+                    Assert.assertEquals(stmtEdge.getKind(), edge.getKind());
+                }
+            }
+        }
+    }
+}
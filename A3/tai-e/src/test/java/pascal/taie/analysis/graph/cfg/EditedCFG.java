@@ -0,0 +1,99 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+/**
+ * CFG obtained by removing some statements and edges from another CFG,
+ * for testing the incremental solving. The predecessors of the removed
+ * statements are connected to their (transitive) successors, so that
+ * the remaining statements keep flowing in the same order.
+ */
+public class EditedCFG extends AbstractCFG<Stmt> {
+
+    public EditedCFG(CFG<Stmt> cfg, Set<Stmt> removedNodes,
+                     Set<Edge<Stmt>> removedEdges) {
+        super(cfg.getIR());
+        setEntry(cfg.getEntry());
+        setExit(cfg.getExit());
+        for (Stmt node : cfg) {
+            if (!removedNodes.contains(node)) {
+                addNode(node);
+            }
+        }
+        for (Stmt node : getNodes()) {
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(node)) {
+                if (removedEdges.contains(edge)) {
+                    continue;
+                }
+                for (Stmt target : getTargets(cfg, edge.getTarget(),
+                        removedNodes, removedEdges)) {
+                    addEdge(copy(edge, node, target));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the remaining statements which are reached from given
+     * statement via the removed statements.
+     */
+    private static Set<Stmt> getTargets(
+            CFG<Stmt> cfg, Stmt stmt, Set<Stmt> removedNodes,
+            Set<Edge<Stmt>> removedEdges) {
+        Set<Stmt> targets = Sets.newSet();
+        Set<Stmt> visited = Sets.newSet();
+        Deque<Stmt> stack = new ArrayDeque<>();
+        stack.push(stmt);
+        while (!stack.isEmpty()) {
+            Stmt s = stack.pop();
+            if (!removedNodes.contains(s)) {
+                targets.add(s);
+            } else if (visited.add(s)) {
+                for (Edge<Stmt> edge : cfg.getOutEdgesOf(s)) {
+                    if (!removedEdges.contains(edge)) {
+                        stack.push(edge.getTarget());
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static Edge<Stmt> copy(Edge<Stmt> edge, Stmt source, Stmt target) {
+        if (edge.isSwitchCase()) {
+            return new SwitchCaseEdge<>(source, target, edge.getCaseValue());
+        } else if (edge.isExceptional()) {
+            return new ExceptionalEdge<>(edge.getKind(),
+                    source, target, edge.getExceptions());
+        } else {
+            return new Edge<>(edge.getKind(), source, target);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * CFG over integer nodes given by the edges between them, for testing
+ * the components of solvers without building IR. The nodes are added
+ * in ascending order; the smallest node is the entry and the largest
+ * node is the exit.
+ */
+public class NumberedCFG implements CFG<Integer> {
+
+    private final Set<Integer> nodes = Sets.newHybridOrderedSet();
+
+    private final List<Set<Edge<Integer>>> inEdges = new ArrayList<>();
+
+    private final List<Set<Edge<Integer>>> outEdges = new ArrayList<>();
+
+    /**
+     * @param edges pairs of the sources and targets of the edges
+     */
+    public NumberedCFG(int... edges) {
+        int max = 0;
+        for (int node : edges) {
+            max = Math.max(max, node);
+        }
+        for (int node = 0; node <= max; ++node) {
+            nodes.add(node);
+            inEdges.add(Sets.newHybridOrderedSet());
+            outEdges.add(Sets.newHybridOrderedSet());
+        }
+        for (int i = 0; i < edges.length; i += 2) {
+            Edge<Integer> edge = new Edge<>(
+                    Edge.Kind.FALL_THROUGH, edges[i], edges[i + 1]);
+            outEdges.get(edges[i]).add(edge);
+            inEdges.get(edges[i + 1]).add(edge);
+        }
+    }
+
+    /**
+     * @return null, as this CFG is not built from IR.
+     */
+    @Override
+    public IR getIR() {
+        return null;
+    }
+
+    /**
+     * @return null, as this CFG is not built from IR.
+     */
+    @Override
+    public JMethod getMethod() {
+        return null;
+    }
+
+    @Override
+    public Integer getEntry() {
+        return 0;
+    }
+
+    @Override
+    public Integer getExit() {
+        return nodes.size() - 1;
+    }
+
+    @Override
+    public boolean isEntry(Integer node) {
+        return node == 0;
+    }
+
+    @Override
+    public boolean isExit(Integer node) {
+        return node == nodes.size() - 1;
+    }
+
+    @Override
+    public Set<Edge<Integer>> getInEdgesOf(Integer node) {
+        return inEdges.get(node);
+    }
+
+    @Override
+    public Set<Edge<Integer>> getOutEdgesOf(Integer node) {
+        return outEdges.get(node);
+    }
+
+    @Override
+    public boolean hasNode(Integer node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public boolean hasEdge(Integer source, Integer target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<Integer> getPredsOf(Integer node) {
+        return getInEdgesOf(node).stream()
+                .map(Edge::getSource)
+                .collect(Collectors.toCollection(Sets::newHybridOrderedSet));
+    }
+
+    @Override
+    public Set<Integer> getSuccsOf(Integer node) {
+        return getOutEdgesOf(node).stream()
+                .map(Edge::getTarget)
+                .collect(Collectors.toCollection(Sets::newHybridOrderedSet));
+    }
+
+    @Override
+    public Set<Integer> getNodes() {
+        return nodes;
+    }
+}
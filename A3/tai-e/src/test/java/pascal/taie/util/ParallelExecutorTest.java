@@ -0,0 +1,81 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+public class ParallelExecutorTest {
+
+    @Test
+    public void testRunInDedicatedPool() {
+        AtomicReference<ForkJoinPool> pool = new AtomicReference<>();
+        Set<ForkJoinPool> streamPools = ConcurrentHashMap.newKeySet();
+        ParallelExecutor.run(3, () -> {
+            pool.set(ForkJoinTask.getPool());
+            // parallel streams started by the task run in the same pool
+            IntStream.range(0, 1000).parallel()
+                    .forEach(i -> streamPools.add(ForkJoinTask.getPool()));
+        });
+        Assert.assertNotSame(ForkJoinPool.commonPool(), pool.get());
+        Assert.assertEquals(3, pool.get().getParallelism());
+        Assert.assertEquals(Set.of(pool.get()), streamPools);
+        // the pool is released after the task completes
+        Assert.assertTrue(pool.get().isShutdown());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRunFailedTask() {
+        ParallelExecutor.run(2, () -> {
+            throw new IllegalStateException();
+        });
+    }
+
+    @Test
+    public void testGetParallelism() {
+        String old = System.getProperty(ParallelExecutor.PARALLELISM);
+        try {
+            System.clearProperty(ParallelExecutor.PARALLELISM);
+            Assert.assertEquals(Runtime.getRuntime().availableProcessors(),
+                    ParallelExecutor.getParallelism());
+            System.setProperty(ParallelExecutor.PARALLELISM, "2");
+            Assert.assertEquals(2, ParallelExecutor.getParallelism());
+            System.setProperty(ParallelExecutor.PARALLELISM, "0");
+            Assert.assertThrows(IllegalArgumentException.class,
+                    ParallelExecutor::getParallelism);
+        } finally {
+            if (old != null) {
+                System.setProperty(ParallelExecutor.PARALLELISM, old);
+            } else {
+                System.clearProperty(ParallelExecutor.PARALLELISM);
+            }
+        }
+    }
+}
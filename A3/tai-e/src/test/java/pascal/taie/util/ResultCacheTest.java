@@ -0,0 +1,132 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.interval.IntervalAnalysis;
+import pascal.taie.analysis.exception.ThrowAnalysis;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.IR;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+public class ResultCacheTest {
+
+    private static final String RESOURCES = "src/test/resources/dataflow/deadcode";
+
+    private static final String ID = "test";
+
+    /**
+     * Number of the results computed (i.e., not read from the cache).
+     */
+    private int computations;
+
+    private static IR buildIR() {
+        Main.buildWorld("-pp", "-cp", RESOURCES, "-m", "DeadAssignment");
+        return World.get()
+                .getClassHierarchy()
+                .getClass("DeadAssignment")
+                .getDeclaredMethod("deadAssign")
+                .getIR();
+    }
+
+    /**
+     * Builds the CFG of given IR with given "exception" option.
+     */
+    private static void buildCFG(IR ir, String exception) {
+        if (!exception.equals("none")) {
+            ir.storeResult(ThrowAnalysis.ID, new ThrowAnalysis(
+                    new AnalysisConfig(ThrowAnalysis.ID,
+                            "exception", exception, "algorithm", "intra"))
+                    .analyze(ir));
+        }
+        ir.storeResult(CFGBuilder.ID, new CFGBuilder(
+                new AnalysisConfig(CFGBuilder.ID,
+                        "exception", exception, "dump", false))
+                .analyze(ir));
+    }
+
+    private int getOrCompute(ResultCache cache, IR ir) {
+        return cache.getOrCompute(ir, i -> {
+                    ++computations;
+                    return i.getStmts().size();
+                },
+                (result, i, out) -> out.writeInt(result),
+                (i, in) -> in.readInt());
+    }
+
+    @Test
+    public void testKeys() throws IOException {
+        IR ir = buildIR();
+        buildCFG(ir, "none");
+        String dir = Files.createTempDirectory("result-cache").toString();
+        AnalysisOptions options = new AnalysisOptions(Map.of("cache-dir", dir));
+        ResultCache cache = ResultCache.open(ID, 1, options);
+        Assert.assertEquals(ir.getStmts().size(), getOrCompute(cache, ir));
+        Assert.assertEquals(ir.getStmts().size(), getOrCompute(cache, ir));
+        Assert.assertEquals(1, computations);
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        ResultCache.closeAll();
+
+        // the result is read from the file of previous run
+        cache = ResultCache.open(ID, 1, options);
+        getOrCompute(cache, ir);
+        Assert.assertEquals(1, computations);
+        // the CFG depends on the options of CFG builder
+        buildCFG(ir, "all");
+        getOrCompute(cache, ir);
+        Assert.assertEquals(2, computations);
+        getOrCompute(cache, ir);
+        Assert.assertEquals(2, computations);
+        ResultCache.closeAll();
+
+        // the results of other versions and options are not used
+        getOrCompute(ResultCache.open(ID, 2, options), ir);
+        Assert.assertEquals(3, computations);
+        getOrCompute(ResultCache.open(ID, 1, new AnalysisOptions(
+                Map.of("cache-dir", dir, "strongly", true))), ir);
+        Assert.assertEquals(4, computations);
+        ResultCache.closeAll();
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testUnsupportedAnalysis() {
+        // interval analysis cannot encode its facts
+        new IntervalAnalysis(new AnalysisConfig(IntervalAnalysis.ID,
+                "cache-dir", "build/tmp/result-cache"));
+    }
+
+    @Test
+    public void testDisabled() {
+        Assert.assertNull(ResultCache.open(ID, 1,
+                new AnalysisOptions(Map.of())));
+    }
+}
@@ -0,0 +1,30 @@
+class IntervalLoops {
+
+    int afterLoop(int n) {
+        int i;
+        for (i = 0; i < n; i++) {
+            use(i);
+        }
+        if (i < 0) {
+            dead(); // unreachable branch
+        }
+        return i;
+    }
+
+    int delayedWidening(int n) {
+        int x = 0;
+        for (int i = 0; i < n; i++) {
+            x = 2;
+        }
+        if (x > 2) {
+            dead(); // unreachable branch if widening is delayed
+        }
+        return x;
+    }
+
+    void dead() {
+    }
+
+    void use(int n) {
+    }
+}
@@ -0,0 +1,15 @@
+class UnreachableUse {
+
+    int branch() {
+        int x = 10;
+        int y = 1;
+        int a = 100; // dead assignment, as a is only used in unreachable branch
+        int z;
+        if (x > y) {
+            z = 100;
+        } else {
+            z = a; // unreachable branch
+        }
+        return z;
+    }
+}
@@ -25,6 +25,7 @@ package pascal.taie.analysis;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 import pascal.taie.analysis.graph.callgraph.CallGraph;
 import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
 import pascal.taie.config.AnalysisConfig;
@@ -60,7 +61,9 @@ import static pascal.taie.util.collection.CollectionUtils.getOne;
  * Special class for process the results of other analyses after they finish.
  * This class is designed mainly for testing purpose. Currently, it supports
  * input/output analysis results from/to file, and compare analysis results
- * with input results. This analysis should be placed after the other analyses.
+ * with input results. It also dumps the metrics of data-flow solvers to the
+ * file given by option "metrics" (if any), see {@link SolverMetrics}.
+ * This analysis should be placed after the other analyses.
  */
 public class ResultProcessor extends ProgramAnalysis {
 
@@ -106,6 +109,10 @@ public class ResultProcessor extends ProgramAnalysis {
         if (getOptions().getBoolean("log-mismatches")) {
             mismatches.forEach(logger::info);
         }
+        String metrics = getOptions().getString("metrics");
+        if (metrics != null) {
+            SolverMetrics.dump(metrics);
+        }
         return mismatches;
     }
 
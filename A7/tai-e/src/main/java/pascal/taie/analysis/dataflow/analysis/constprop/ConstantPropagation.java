@@ -71,9 +71,10 @@ public class ConstantPropagation extends
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
-        for (Var var : fact.keySet()) {
-            target.update(var, meetValue(fact.get(var), target.get(var)));
-        }
+        // iterate by forEach() instead of keySet(), which makes
+        // a snapshot of the keys for persistent facts
+        fact.forEach((var, value) ->
+                target.update(var, meetValue(value, target.get(var))));
     }
 
     /**
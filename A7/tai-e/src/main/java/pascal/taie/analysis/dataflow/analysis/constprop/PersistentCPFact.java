@@ -0,0 +1,163 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.HashTrie;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link CPFact} backed by a persistent {@link HashTrie}.
+ * <p>
+ * Copies share the trie with the original fact, thus {@link #copy()}
+ * takes O(1) time, and an update only copies the path to the updated
+ * variable. Since inter-procedural constant propagation copies facts at
+ * every statement and edge, while each copy differs from its origin in
+ * few variables, this saves most of the copying work and memory.
+ * Besides, {@link #copyFrom(MapFact)} and {@link #equals(Object)} skip
+ * the subtries shared by two facts, and {@link #hashCode()} is cached.
+ */
+public class PersistentCPFact extends CPFact {
+
+    private HashTrie<Var, Value> trie;
+
+    public PersistentCPFact() {
+        this(HashTrie.empty());
+    }
+
+    private PersistentCPFact(HashTrie<Var, Value> trie) {
+        this.trie = trie;
+    }
+
+    /**
+     * @return a persistent fact with the same content as given fact.
+     */
+    public static PersistentCPFact of(CPFact fact) {
+        if (fact instanceof PersistentCPFact persistent) {
+            return persistent.copy();
+        }
+        PersistentCPFact result = new PersistentCPFact();
+        fact.forEach(result::update);
+        return result;
+    }
+
+    @Override
+    public Value get(Var key) {
+        Value value = trie.get(key);
+        return value != null ? value : Value.getUndef();
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        HashTrie<Var, Value> oldTrie = trie;
+        // UNDEF is represented by absence, as in CPFact
+        trie = value.isUndef() ? trie.remove(key) : trie.put(key, value);
+        return trie != oldTrie;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        Value oldValue = trie.get(key);
+        trie = trie.remove(key);
+        return oldValue;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof PersistentCPFact that) {
+            HashTrie<Var, Value> oldTrie = trie;
+            trie = trie.putAll(that.trie);
+            return trie != oldTrie;
+        }
+        return super.copyFrom(fact);
+    }
+
+    @Override
+    public PersistentCPFact copy() {
+        return new PersistentCPFact(trie);
+    }
+
+    @Override
+    public void clear() {
+        trie = HashTrie.empty();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return trie.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return trie.size();
+    }
+
+    /**
+     * @return a snapshot of the variables in this fact.
+     * Different from {@link MapFact#keySet()}, it is not a view, and
+     * does not reflect the later changes of this fact.
+     */
+    @Override
+    public Set<Var> keySet() {
+        Set<Var> keys = Sets.newSet(trie.size());
+        trie.forEach((k, v) -> keys.add(k));
+        return keys;
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        List<Map.Entry<Var, Value>> entries = new ArrayList<>(trie.size());
+        trie.forEach((k, v) -> entries.add(Map.entry(k, v)));
+        return entries.stream();
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        trie.forEach(action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PersistentCPFact that = (PersistentCPFact) o;
+        return trie.equals(that.trie);
+    }
+
+    @Override
+    public int hashCode() {
+        return trie.hashCode();
+    }
+}
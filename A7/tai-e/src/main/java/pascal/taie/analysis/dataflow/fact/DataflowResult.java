@@ -24,46 +24,116 @@ package pascal.taie.analysis.dataflow.fact;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.ToIntFunction;
 
 /**
  * An object which manages the data-flow facts associated with nodes.
+ * <p>
+ * The facts are kept in maps by default. If the nodes are indexed, e.g.,
+ * {@link pascal.taie.ir.stmt.Stmt}s by their indexes in the IR, the
+ * result can be created with an indexer (see
+ * {@link #DataflowResult(ToIntFunction, int)}), and then the facts are
+ * kept in arrays, which avoids the map entries and the hashing of the nodes.
  *
  * @param <Node> type of nodes
  * @param <Fact> type of data-flow facts
  */
 public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
 
+    /**
+     * Function which gives the indexes of the nodes in {@link #inArray}
+     * and {@link #outArray}, or null if the facts are kept in maps.
+     */
+    private final ToIntFunction<? super Node> indexer;
+
+    private final Object[] inArray;
+
+    private final Object[] outArray;
+
+    /**
+     * Flowing-in facts of the nodes which are not indexed.
+     */
     private final Map<Node, Fact> inFacts = new LinkedHashMap<>();
 
+    /**
+     * Flowing-out facts of the nodes which are not indexed.
+     */
     private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
 
+    public DataflowResult() {
+        this(null, 0);
+    }
+
+    /**
+     * Creates a result which keeps the facts of the nodes in arrays.
+     * The indexer must give different nodes different indexes; the facts
+     * of the nodes whose indexes are out of [0, capacity), e.g., -1,
+     * are kept in maps.
+     *
+     * @param indexer  function which gives the indexes of the nodes
+     * @param capacity length of the arrays
+     */
+    public DataflowResult(ToIntFunction<? super Node> indexer, int capacity) {
+        this.indexer = indexer;
+        this.inArray = new Object[capacity];
+        this.outArray = new Object[capacity];
+    }
+
+    /**
+     * @return the index of given node in the arrays,
+     * or -1 if its facts are kept in maps.
+     */
+    private int indexOf(Node node) {
+        if (indexer != null) {
+            int index = indexer.applyAsInt(node);
+            if (0 <= index && index < inArray.length) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
     /**
      * @return the flowing-in fact of given node.
      */
     @Override
+    @SuppressWarnings("unchecked")
     public Fact getInFact(Node node) {
-        return inFacts.get(node);
+        int index = indexOf(node);
+        return index >= 0 ? (Fact) inArray[index] : inFacts.get(node);
     }
 
     /**
      * Associates a data-flow fact with a node as its flowing-in fact.
      */
     public void setInFact(Node node, Fact fact) {
-        inFacts.put(node, fact);
+        int index = indexOf(node);
+        if (index >= 0) {
+            inArray[index] = fact;
+        } else {
+            inFacts.put(node, fact);
+        }
     }
 
     /**
      * @return the flowing-out fact of given node.
      */
     @Override
+    @SuppressWarnings("unchecked")
     public Fact getOutFact(Node node) {
-        return outFacts.get(node);
+        int index = indexOf(node);
+        return index >= 0 ? (Fact) outArray[index] : outFacts.get(node);
     }
 
     /**
      * Associates a data-flow fact with a node as its flowing-out fact.
      */
     public void setOutFact(Node node, Fact fact) {
-        outFacts.put(node, fact);
+        int index = indexOf(node);
+        if (index >= 0) {
+            outArray[index] = fact;
+        } else {
+            outFacts.put(node, fact);
+        }
     }
 }
@@ -88,8 +88,10 @@ public class MapFact<K, V> {
      */
     public boolean copyFrom(MapFact<K, V> fact) {
         boolean changed = false;
-        for (Map.Entry<K, V> entry : fact.map.entrySet()) {
-            changed |= update(entry.getKey(), entry.getValue());
+        // access the content of given fact via its methods
+        // instead of its map, as subclasses may store content elsewhere
+        for (K key : fact.keySet()) {
+            changed |= update(key, fact.get(key));
         }
         return changed;
     }
@@ -108,6 +110,20 @@ public class MapFact<K, V> {
         map.clear();
     }
 
+    /**
+     * @return true if this fact contains no key-value mappings.
+     */
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * @return the number of keys in this fact.
+     */
+    public int size() {
+        return map.size();
+    }
+
     /**
      * @return a {@link Set} view of the keys contained in this fact.
      */
@@ -154,8 +170,7 @@ public class MapFact<K, V> {
         // Sort key-value pairs by key's string representation, so that the
         // fact representation is stable across executions. This is useful
         // for comparing expected results and the ones given by the analysis.
-        return "{" + map.entrySet()
-                .stream()
+        return "{" + entries()
                 .sorted(Comparator.comparing(e -> e.getKey().toString()))
                 .map(e -> e.getKey() + "=" + e.getValue())
                 .collect(Collectors.joining(", ")) + "}";
@@ -0,0 +1,419 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation.canHoldInt;
+
+/**
+ * Demand-driven queries of the results of alias-aware inter-procedural
+ * constant propagation ({@link InterConstantPropagation} with
+ * {@code alias-aware: true} and {@code edge-refine: false}).
+ * <p>
+ * The value of a variable at a statement is computed from the values
+ * it depends on, which are found by walking backwards from the statement
+ * along the ICFG edges, and from the loads to the aliased stores given
+ * by the pointer analysis. The dependent values are solved together
+ * (optimistically from UNDEF, as the work-list solver does), and then
+ * memoized, so that the later queries only solve the values which are
+ * not memoized yet. The answers are the same as the facts computed by
+ * solving the whole program, as long as the transfer functions are
+ * monotone (i.e., division by zero is not involved).
+ * <p>
+ * This class is not thread-safe.
+ */
+public class ConstantQuery {
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    private final PointerAnalysisResult pta;
+
+    private final ConstantPropagation cp;
+
+    /**
+     * Memoized values of the solved queries.
+     */
+    private final Map<Query, Value> memo = Maps.newMap();
+
+    /**
+     * Index of the heap stores, which is built on the first query
+     * which depends on the heap.
+     */
+    private MultiMap<JField, StoreField> staticFieldStores;
+
+    private MultiMap<Pair<Obj, JField>, StoreField> objFieldStores;
+
+    private MultiMap<Obj, StoreArray> objArrayStores;
+
+    /**
+     * Memoized stores which may be read by each load.
+     */
+    private final Map<Stmt, List<Stmt>> aliasedStores = Maps.newMap();
+
+    public ConstantQuery(ICFG<JMethod, Stmt> icfg, PointerAnalysisResult pta) {
+        this.icfg = icfg;
+        this.pta = pta;
+        this.cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+    }
+
+    /**
+     * @return the value of given variable after given statement,
+     * i.e., the value in OUT fact of the statement.
+     */
+    public Value getValue(Stmt stmt, Var var) {
+        if (!canHoldInt(var)) {
+            return Value.getUndef();
+        }
+        Query query = new Query(stmt, var, false);
+        Value value = memo.get(query);
+        if (value == null) {
+            solve(query);
+            value = memo.get(query);
+        }
+        return value;
+    }
+
+    /**
+     * @return true if given variable holds a constant after given statement.
+     */
+    public boolean isConstant(Stmt stmt, Var var) {
+        return getValue(stmt, var).isConstant();
+    }
+
+    /**
+     * @return the number of the memoized values.
+     */
+    public int getNumberOfMemoizedValues() {
+        return memo.size();
+    }
+
+    /**
+     * Solves given query together with all the unsolved queries
+     * it depends on, and memoizes their values.
+     */
+    private void solve(Query query) {
+        // walk backwards to find the unsolved queries
+        Map<Query, Value> values = Maps.newMap();
+        MultiMap<Query, Query> dependents = Maps.newMultiMap();
+        Deque<Query> stack = new ArrayDeque<>();
+        values.put(query, Value.getUndef());
+        stack.push(query);
+        while (!stack.isEmpty()) {
+            Query q = stack.pop();
+            for (Query dep : getDependencies(q)) {
+                if (!memo.containsKey(dep)) {
+                    dependents.put(dep, q);
+                    if (values.putIfAbsent(dep, Value.getUndef()) == null) {
+                        stack.push(dep);
+                    }
+                }
+            }
+        }
+        // solve them by a work-list
+        Function<Query, Value> lookup = q -> {
+            Value value = memo.get(q);
+            return value != null ? value : values.get(q);
+        };
+        Deque<Query> workList = new ArrayDeque<>(values.keySet());
+        Set<Query> inWorkList = Sets.newSet();
+        inWorkList.addAll(values.keySet());
+        while (!workList.isEmpty()) {
+            Query q = workList.poll();
+            inWorkList.remove(q);
+            Value value = evaluate(q, lookup);
+            if (!value.equals(values.put(q, value))) {
+                for (Query dependent : dependents.get(q)) {
+                    if (inWorkList.add(dependent)) {
+                        workList.add(dependent);
+                    }
+                }
+            }
+        }
+        memo.putAll(values);
+    }
+
+    /**
+     * @return all queries whose values may be needed
+     * by {@link #evaluate(Query, Function)}.
+     */
+    private List<Query> getDependencies(Query query) {
+        Stmt stmt = query.stmt();
+        Var var = query.var();
+        List<Query> deps = new ArrayList<>();
+        if (query.isIn()) {
+            for (ICFGEdge<Stmt> edge : icfg.getInEdgesOf(stmt)) {
+                deps.addAll(getSourceQueries(edge, var));
+            }
+        } else if (icfg.isCallSite(stmt) || !defines(stmt, var)) {
+            deps.add(new Query(stmt, var, true));
+        } else if (stmt instanceof LoadField) {
+            for (Stmt store : getAliasedStores(stmt)) {
+                StoreField storeField = (StoreField) store;
+                deps.add(new Query(store, storeField.getRValue(), false));
+            }
+        } else if (stmt instanceof LoadArray loadArray) {
+            Var index = loadArray.getArrayAccess().getIndex();
+            deps.add(new Query(stmt, index, true));
+            deps.add(new Query(stmt, index, false));
+            for (Stmt store : getAliasedStores(stmt)) {
+                StoreArray storeArray = (StoreArray) store;
+                deps.add(new Query(store, storeArray.getRValue(), false));
+                deps.add(new Query(store, storeArray.getArrayAccess().getIndex(), false));
+            }
+        } else {
+            for (Var use : getUsedVars(stmt)) {
+                deps.add(new Query(stmt, use, true));
+            }
+        }
+        return deps;
+    }
+
+    /**
+     * @return the queries of the values flowing along given edge
+     * to the value of given variable at the target of the edge.
+     */
+    private List<Query> getSourceQueries(ICFGEdge<Stmt> edge, Var var) {
+        Stmt source = edge.getSource();
+        if (edge instanceof CallToReturnEdge<Stmt>) {
+            return var.equals(((Invoke) source).getLValue()) ? List.of() :
+                    List.of(new Query(source, var, false));
+        } else if (edge instanceof CallEdge<Stmt> callEdge) {
+            List<Var> params = callEdge.getCallee().getIR().getParams();
+            List<Query> queries = new ArrayList<>();
+            for (int i = 0; i < params.size(); i++) {
+                if (params.get(i).equals(var)) {
+                    queries.add(new Query(source,
+                            ((Invoke) source).getInvokeExp().getArg(i), false));
+                }
+            }
+            return queries;
+        } else if (edge instanceof ReturnEdge<Stmt> returnEdge) {
+            if (!var.equals(((Invoke) returnEdge.getCallSite()).getLValue())) {
+                return List.of();
+            }
+            return returnEdge.getReturnVars()
+                    .stream()
+                    .map(returnVar -> new Query(source, returnVar, false))
+                    .toList();
+        } else {
+            return List.of(new Query(source, var, false));
+        }
+    }
+
+    /**
+     * Evaluates the value of given query from the values of its
+     * dependencies, which are given by {@code lookup}.
+     */
+    private Value evaluate(Query query, Function<Query, Value> lookup) {
+        Stmt stmt = query.stmt();
+        Var var = query.var();
+        if (query.isIn()) {
+            Value value = isBoundaryParam(stmt, var) ?
+                    Value.getNAC() : Value.getUndef();
+            for (ICFGEdge<Stmt> edge : icfg.getInEdgesOf(stmt)) {
+                for (Query q : getSourceQueries(edge, var)) {
+                    value = cp.meetValue(value, lookup.apply(q));
+                }
+            }
+            return value;
+        } else if (icfg.isCallSite(stmt) || !defines(stmt, var)) {
+            return lookup.apply(new Query(stmt, var, true));
+        } else if (stmt instanceof LoadField) {
+            Value value = Value.getUndef();
+            for (Stmt store : getAliasedStores(stmt)) {
+                StoreField storeField = (StoreField) store;
+                value = cp.meetValue(value,
+                        lookup.apply(new Query(store, storeField.getRValue(), false)));
+            }
+            return value;
+        } else if (stmt instanceof LoadArray loadArray) {
+            Var index = loadArray.getArrayAccess().getIndex();
+            Value inIndex = lookup.apply(new Query(stmt, index, true));
+            Value outIndex = lookup.apply(new Query(stmt, index, false));
+            Value value = Value.getUndef();
+            for (Stmt store : getAliasedStores(stmt)) {
+                StoreArray storeArray = (StoreArray) store;
+                Value storeIndex = lookup.apply(new Query(store,
+                        storeArray.getArrayAccess().getIndex(), false));
+                if (isIndexEffect(storeIndex, outIndex) ||
+                        isIndexEffect(storeIndex, inIndex)) {
+                    value = cp.meetValue(value,
+                            lookup.apply(new Query(store, storeArray.getRValue(), false)));
+                }
+            }
+            return value;
+        } else {
+            CPFact in = new CPFact();
+            for (Var use : getUsedVars(stmt)) {
+                in.update(use, lookup.apply(new Query(stmt, use, true)));
+            }
+            return ConstantPropagation.evaluate(
+                    ((DefinitionStmt<?, ?>) stmt).getRValue(), in);
+        }
+    }
+
+    /**
+     * @return true if given non-call statement updates the value of given
+     * variable in constant propagation.
+     */
+    private static boolean defines(Stmt stmt, Var var) {
+        if (stmt instanceof LoadField || stmt instanceof LoadArray) {
+            return var.equals(((DefinitionStmt<?, ?>) stmt).getLValue());
+        }
+        return stmt instanceof DefinitionStmt<?, ?> definitionStmt &&
+                var.equals(definitionStmt.getLValue()) &&
+                canHoldInt(var);
+    }
+
+    private static List<Var> getUsedVars(Stmt stmt) {
+        List<Var> vars = new ArrayList<>();
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var) {
+                vars.add(var);
+            }
+        }
+        return vars;
+    }
+
+    /**
+     * @return true if given variable is an int parameter of an entry
+     * method and given statement is the entry of the method.
+     */
+    private boolean isBoundaryParam(Stmt stmt, Var var) {
+        JMethod method = icfg.getContainingMethodOf(stmt);
+        return icfg.getEntryOf(method) == stmt &&
+                icfg.entryMethods().anyMatch(method::equals) &&
+                method.getIR().getParams().contains(var) &&
+                canHoldInt(var);
+    }
+
+    /**
+     * @return the stores which may write the field or array read by
+     * given load.
+     */
+    private List<Stmt> getAliasedStores(Stmt load) {
+        return aliasedStores.computeIfAbsent(load, l -> {
+            if (staticFieldStores == null) {
+                buildStoreIndex();
+            }
+            Set<Stmt> stores = Sets.newHybridSet();
+            if (l instanceof LoadField loadField) {
+                if (loadField.isStatic()) {
+                    stores.addAll(staticFieldStores.get(
+                            loadField.getFieldRef().resolve()));
+                } else {
+                    Var base = ((InstanceFieldAccess) loadField.getFieldAccess()).getBase();
+                    Set<Obj> pts = pta.getPointsToSet(base);
+                    JField field = pts.isEmpty() ? null : loadField.getFieldRef().resolve();
+                    for (Obj obj : pts) {
+                        stores.addAll(objFieldStores.get(new Pair<>(obj, field)));
+                    }
+                }
+            } else {
+                Var base = ((LoadArray) l).getArrayAccess().getBase();
+                for (Obj obj : pta.getPointsToSet(base)) {
+                    stores.addAll(objArrayStores.get(obj));
+                }
+            }
+            return List.copyOf(stores);
+        });
+    }
+
+    /**
+     * Indexes the heap stores in the ICFG by the fields and the objects
+     * they may write.
+     */
+    private void buildStoreIndex() {
+        staticFieldStores = Maps.newMultiMap();
+        objFieldStores = Maps.newMultiMap();
+        objArrayStores = Maps.newMultiMap();
+        for (Stmt stmt : icfg) {
+            if (stmt instanceof StoreField storeField) {
+                if (storeField.isStatic()) {
+                    staticFieldStores.put(storeField.getFieldRef().resolve(), storeField);
+                } else {
+                    Var base = ((InstanceFieldAccess) storeField.getFieldAccess()).getBase();
+                    Set<Obj> pts = pta.getPointsToSet(base);
+                    if (!pts.isEmpty()) {
+                        JField field = storeField.getFieldRef().resolve();
+                        pts.forEach(obj ->
+                                objFieldStores.put(new Pair<>(obj, field), storeField));
+                    }
+                }
+            } else if (stmt instanceof StoreArray storeArray) {
+                Var base = storeArray.getArrayAccess().getBase();
+                pta.getPointsToSet(base).forEach(obj ->
+                        objArrayStores.put(obj, storeArray));
+            }
+        }
+    }
+
+    private static boolean isIndexEffect(Value v1, Value v2) {
+        if (v1.isConstant() && v2.isConstant()) {
+            return v1.getConstant() == v2.getConstant();
+        } else {
+            return !v1.isUndef() && !v2.isUndef();
+        }
+    }
+
+    /**
+     * Query of the value of {@code var} before ({@code isIn}) or
+     * after {@code stmt}.
+     */
+    private record Query(Stmt stmt, Var var, boolean isIn) {
+    }
+}
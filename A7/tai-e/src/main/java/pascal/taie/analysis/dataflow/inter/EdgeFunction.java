@@ -0,0 +1,52 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+/**
+ * Edge function of IDE (interprocedural distributive environment)
+ * problems, which transforms the value of a data-flow fact at the source
+ * of an edge (or a path) to the value of a fact at the target.
+ * Implementations must override {@link Object#equals(Object)}, as the
+ * solver detects the changes of the jump functions by equality.
+ *
+ * @param <V> type of values
+ */
+public interface EdgeFunction<V> {
+
+    /**
+     * @return the result of applying this function to given value.
+     */
+    V computeTarget(V source);
+
+    /**
+     * @return the composition of this function and given function,
+     * i.e., the function which applies this function first and
+     * then {@code next}.
+     */
+    EdgeFunction<V> andThen(EdgeFunction<V> next);
+
+    /**
+     * @return the meet of this function and given function, which
+     * over-approximates the meet of their results on every value.
+     */
+    EdgeFunction<V> meetWith(EdgeFunction<V> other);
+}
@@ -0,0 +1,112 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.DepthFirstOrder;
+import pascal.taie.util.graph.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Global numbering of the nodes of an ICFG, which gives the order of
+ * processing the nodes in {@link InterWorkList}. The methods are ordered
+ * by reverse post-order of the call relation from the entry methods,
+ * so that the callees (and thus their entry nodes) come after their
+ * call sites except on recursive calls, and the nodes of each method
+ * are numbered contiguously in reverse post-order of the method's CFG.
+ * The numbers of the nodes range from 0 to (number of nodes - 1).
+ *
+ * @param <Node> type of ICFG nodes
+ */
+class ICFGNumbering<Node> {
+
+    private final List<Node> nodes;
+
+    private final Map<Node, Integer> numbers;
+
+    <Method> ICFGNumbering(ICFG<Method, Node> icfg) {
+        // build the intra-procedural CFGs and the call relation
+        Map<Method, SimpleGraph<Node>> cfgs = Maps.newMap();
+        SimpleGraph<Method> calls = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method method = icfg.getContainingMethodOf(node);
+            calls.addNode(method);
+            SimpleGraph<Node> cfg = cfgs.computeIfAbsent(
+                    method, m -> new SimpleGraph<>());
+            cfg.addNode(node);
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                if (edge instanceof CallEdge) {
+                    calls.addEdge(method,
+                            icfg.getContainingMethodOf(edge.getTarget()));
+                } else if (!(edge instanceof ReturnEdge)) {
+                    cfg.addEdge(node, edge.getTarget());
+                }
+            }
+        }
+        nodes = new ArrayList<>(icfg.getNumberOfNodes());
+        numbers = Maps.newMap(icfg.getNumberOfNodes());
+        if (cfgs.isEmpty()) {
+            return;
+        }
+        Method root = icfg.entryMethods()
+                .findFirst()
+                .orElseGet(() -> cfgs.keySet().iterator().next());
+        for (Method method : new DepthFirstOrder<>(calls, root)
+                .getReversePostOrder()) {
+            SimpleGraph<Node> cfg = cfgs.get(method);
+            for (Node node : new DepthFirstOrder<>(cfg, icfg.getEntryOf(method))
+                    .getReversePostOrder()) {
+                numbers.put(node, nodes.size());
+                nodes.add(node);
+            }
+        }
+    }
+
+    /**
+     * @return the number of given node, or -1 if the node is not in the ICFG.
+     */
+    int getNumber(Node node) {
+        return numbers.getOrDefault(node, -1);
+    }
+
+    /**
+     * @return the node of given number.
+     */
+    Node getNode(int number) {
+        return nodes.get(number);
+    }
+
+    /**
+     * @return the number of the numbered nodes.
+     */
+    int size() {
+        return nodes.size();
+    }
+}
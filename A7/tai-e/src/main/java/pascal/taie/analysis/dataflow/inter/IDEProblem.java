@@ -0,0 +1,94 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Template interface for IDE problems, which are solved by {@link IDESolver}.
+ * The flow function of each kind of ICFG edge maps a data-flow fact at
+ * the source of the edge to the facts it generates at the target, each
+ * with the edge function which computes the value of the generated fact.
+ * The effect of each node is on its out edges.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ * @param <V>    type of values of the facts
+ */
+public interface IDEProblem<Node, D, V> {
+
+    /**
+     * @return the special zero fact, which holds at every reachable node
+     * and generates the facts which do not depend on other facts.
+     */
+    D zeroFact();
+
+    /**
+     * @return all facts which may hold at given method entry, including
+     * the zero fact. The summaries of the methods are computed for these
+     * facts when {@link IDESolver} solves the call graph bottom-up.
+     */
+    Set<D> getEntryFacts(Node entry);
+
+    // ---------- flow functions for specific ICFG edges ----------
+    Map<D, EdgeFunction<V>> getNormalFlow(NormalEdge<Node> edge, D fact);
+
+    Map<D, EdgeFunction<V>> getCallToReturnFlow(CallToReturnEdge<Node> edge, D fact);
+
+    Map<D, EdgeFunction<V>> getCallFlow(CallEdge<Node> edge, D fact);
+
+    Map<D, EdgeFunction<V>> getReturnFlow(ReturnEdge<Node> edge, D fact);
+    // ------------------------------------------------------------
+
+    /**
+     * @return the identity edge function.
+     */
+    EdgeFunction<V> identity();
+
+    /**
+     * @return the edge function which maps every value to the top value,
+     * i.e., the initial jump function.
+     */
+    EdgeFunction<V> allTop();
+
+    /**
+     * @return the top value, i.e., the value of the unreachable facts.
+     */
+    V topValue();
+
+    /**
+     * @return the bottom value, which is taken as the value of the zero
+     * fact at the entries of the entry methods.
+     */
+    V bottomValue();
+
+    /**
+     * Meets two values.
+     */
+    V meetValue(V v1, V v2);
+}
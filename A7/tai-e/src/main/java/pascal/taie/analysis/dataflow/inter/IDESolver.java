@@ -0,0 +1,548 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.ParallelExecutor;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.TwoKeyMap;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Tabulation solver for IDE problems (Sagiv, Reps and Horwitz, TCS'96).
+ * <p>
+ * Phase I computes the jump functions from the facts at the entry of
+ * each method to the facts at its nodes. The jump functions at the exit
+ * of a method are its summaries, which are cached by the entry facts and
+ * applied at every call site reaching the method with the same facts,
+ * so that a method is analyzed once per entry fact instead of once per
+ * calling context. Phase II propagates the values from the entries of
+ * the entry methods to the entries of the callees, and then computes the
+ * values at every node by applying the jump functions to the values at
+ * the entry of its method. The values at the return sites are computed
+ * through the summaries of the callees, which makes the results
+ * context-sensitive up to the call sites.
+ * <p>
+ * In parallel mode, the call graph is condensed into its SCCs. Phase I
+ * solves the SCCs bottom-up, i.e., the callees before the callers, and
+ * computes the summaries of each method for all its entry facts
+ * (see {@link IDEProblem#getEntryFacts}), so that the calls to other SCCs
+ * are resolved by their complete summaries. Phase II propagates the values
+ * top-down, i.e., each SCC takes the values at the entries of its methods
+ * from the call sites of the solved callers. In both phases, the SCCs
+ * which do not depend on each other are solved concurrently.
+ * The jump functions from the facts which do not reach the entries are
+ * not applied in phase II, thus the values are the same as in sequential
+ * mode. As the methods of a recursive SCC are analyzed for all their entry
+ * facts, if an SCC contains more than half of the methods, e.g., the call
+ * graph is a single SCC, the solver falls back to sequential mode, which
+ * only analyzes the methods for the facts reaching their entries.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ * @param <V>      type of values of the facts
+ */
+class IDESolver<Method, Node, D, V> {
+
+    private final IDEProblem<Node, D, V> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    /**
+     * Whether to solve the SCCs of the call graph in parallel.
+     */
+    private final boolean isParallel;
+
+    /**
+     * Jump functions, i.e., node -> target fact -> entry fact -> function.
+     */
+    private Map<Node, TwoKeyMap<D, D, EdgeFunction<V>>> jumpFns;
+
+    /**
+     * Summaries of the methods, i.e., method -> entry fact -> exit fact
+     * -> function.
+     */
+    private Map<Method, TwoKeyMap<D, D, EdgeFunction<V>>> summaries;
+
+    /**
+     * Incoming call edges with the facts at the call sites, for each
+     * method and entry fact.
+     */
+    private Map<Method, MultiMap<D, Pair<CallEdge<Node>, D>>> incoming;
+
+    /**
+     * Call sites of each method.
+     */
+    private MultiMap<Method, Node> callSites;
+
+    /**
+     * Values, i.e., node -> fact -> value.
+     */
+    private Map<Node, Map<D, V>> values;
+
+    IDESolver(IDEProblem<Node, D, V> problem, ICFG<Method, Node> icfg) {
+        this(problem, icfg, false);
+    }
+
+    IDESolver(IDEProblem<Node, D, V> problem, ICFG<Method, Node> icfg,
+              boolean isParallel) {
+        this.problem = problem;
+        this.icfg = icfg;
+        this.isParallel = isParallel;
+    }
+
+    void solve() {
+        callSites = Maps.newMultiMap();
+        for (Node node : icfg) {
+            if (icfg.isCallSite(node)) {
+                callSites.put(icfg.getContainingMethodOf(node), node);
+            }
+        }
+        List<List<Set<Method>>> levels = isParallel ? computeLevels() : null;
+        if (levels == null) {
+            jumpFns = Maps.newMap();
+            summaries = Maps.newMap();
+            incoming = Maps.newMap();
+            values = Maps.newMap();
+            computeJumpFunctions();
+            computeValues();
+        } else {
+            // the maps are shared by the SCCs solved concurrently,
+            // while each inner map is only updated by the containing SCC
+            // of its node (or method)
+            jumpFns = Maps.newConcurrentMap();
+            summaries = Maps.newConcurrentMap();
+            incoming = Maps.newConcurrentMap();
+            values = Maps.newConcurrentMap();
+            ParallelExecutor.run(ParallelExecutor.getParallelism(), () -> {
+                levels.forEach(level -> level.parallelStream()
+                        .forEach(this::computeJumpFunctions));
+                for (int i = levels.size() - 1; i >= 0; --i) {
+                    levels.get(i).parallelStream()
+                            .forEach(this::computeEntryValues);
+                }
+                computeNodeValues();
+            });
+        }
+        // the summaries are only needed in solving
+        jumpFns = null;
+        summaries = null;
+        incoming = null;
+    }
+
+    /**
+     * Condenses the call graph into SCCs and groups them into levels,
+     * where each SCC only calls the SCCs of the lower levels.
+     *
+     * @return the methods of the SCCs of each level, bottom-up,
+     * or null if an SCC contains more than half of the methods.
+     */
+    private @Nullable List<List<Set<Method>>> computeLevels() {
+        SimpleGraph<Method> calls = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method method = icfg.getContainingMethodOf(node);
+            calls.addNode(method);
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                if (edge instanceof CallEdge) {
+                    calls.addEdge(method,
+                            icfg.getContainingMethodOf(edge.getTarget()));
+                }
+            }
+        }
+        MergedSCCGraph<Method> sccGraph = new MergedSCCGraph<>(calls);
+        int maxSCCSize = sccGraph.getNodes()
+                .stream()
+                .mapToInt(scc -> scc.getNodes().size())
+                .max()
+                .orElse(0);
+        if (maxSCCSize * 2 > calls.getNodes().size()) {
+            return null;
+        }
+        List<List<Set<Method>>> levels = new ArrayList<>();
+        Map<MergedNode<Method>, Integer> levelOf = Maps.newMap();
+        // reverse topological order, i.e., the callees first
+        for (MergedNode<Method> scc : new TopoSorter<>(sccGraph, true).get()) {
+            int level = sccGraph.getSuccsOf(scc)
+                    .stream()
+                    .mapToInt(callee -> levelOf.get(callee) + 1)
+                    .max()
+                    .orElse(0);
+            levelOf.put(scc, level);
+            if (level == levels.size()) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(Set.copyOf(scc.getNodes()));
+        }
+        return levels;
+    }
+
+    // ---------- phase I: jump functions and summaries ----------
+    private void computeJumpFunctions() {
+        D zero = problem.zeroFact();
+        Tabulation tabulation = new Tabulation(null);
+        icfg.entryMethods().forEach(m ->
+                tabulation.propagate(zero, icfg.getEntryOf(m), zero, problem.identity()));
+        tabulation.run();
+    }
+
+    /**
+     * Computes the jump functions of given SCC for all entry facts
+     * of its methods.
+     */
+    private void computeJumpFunctions(Set<Method> scc) {
+        Tabulation tabulation = new Tabulation(scc);
+        for (Method method : scc) {
+            Node entry = icfg.getEntryOf(method);
+            for (D fact : problem.getEntryFacts(entry)) {
+                tabulation.propagate(fact, entry, fact, problem.identity());
+            }
+        }
+        tabulation.run();
+    }
+
+    /**
+     * Tabulation of the jump functions of the methods in a scope.
+     * The calls to the methods out of the scope are resolved by
+     * their summaries.
+     */
+    private class Tabulation {
+
+        /**
+         * The methods to be analyzed, or null for all methods.
+         */
+        private final Set<Method> scope;
+
+        /**
+         * Work-list of the path edges whose jump functions are changed.
+         */
+        private final Deque<PathEdge<Node, D>> pathEdges = new ArrayDeque<>();
+
+        private Tabulation(@Nullable Set<Method> scope) {
+            this.scope = scope;
+        }
+
+        private void run() {
+            while (!pathEdges.isEmpty()) {
+                PathEdge<Node, D> pathEdge = pathEdges.poll();
+                Node node = pathEdge.node();
+                EdgeFunction<V> f = jumpFns.get(node)
+                        .get(pathEdge.target(), pathEdge.source());
+                if (icfg.isCallSite(node)) {
+                    processCall(pathEdge.source(), node, pathEdge.target(), f);
+                } else if (isExit(node)) {
+                    processExit(pathEdge.source(), node, pathEdge.target(), f);
+                } else {
+                    processNormal(pathEdge.source(), node, pathEdge.target(), f);
+                }
+            }
+        }
+
+        private void processCall(D d1, Node callSite, D d2, EdgeFunction<V> f) {
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+                if (edge instanceof CallEdge<Node> callEdge) {
+                    Node entry = callEdge.getTarget();
+                    Method callee = icfg.getContainingMethodOf(entry);
+                    boolean inScope = scope == null || scope.contains(callee);
+                    problem.getCallFlow(callEdge, d2).forEach((d3, fCall) -> {
+                        if (inScope) {
+                            incoming.computeIfAbsent(callee, m -> Maps.newMultiMap())
+                                    .put(d3, new Pair<>(callEdge, d2));
+                            propagate(d3, entry, d3, problem.identity());
+                        }
+                        // apply the cached summary of the callee
+                        getSummary(callee, d3).forEach((d4, fSummary) ->
+                                applySummary(callSite, icfg.getExitOf(callee), d4,
+                                        d1, f.andThen(fCall).andThen(fSummary)));
+                    });
+                } else if (edge instanceof CallToReturnEdge<Node> c2rEdge) {
+                    problem.getCallToReturnFlow(c2rEdge, d2).forEach((d3, fC2R) ->
+                            propagate(d1, c2rEdge.getTarget(), d3, f.andThen(fC2R)));
+                }
+            }
+        }
+
+        private void processExit(D d1, Node exit, D d2, EdgeFunction<V> f) {
+            Method method = icfg.getContainingMethodOf(exit);
+            summaries.computeIfAbsent(method, m -> Maps.newTwoKeyMap())
+                    .put(d1, d2, f);
+            MultiMap<D, Pair<CallEdge<Node>, D>> callers = incoming.get(method);
+            if (callers == null) {
+                return;
+            }
+            for (Pair<CallEdge<Node>, D> caller : callers.get(d1)) {
+                CallEdge<Node> callEdge = caller.first();
+                D d4 = caller.second();
+                EdgeFunction<V> fThrough = problem.getCallFlow(callEdge, d4)
+                        .get(d1).andThen(f);
+                Node callSite = callEdge.getSource();
+                jumpFns.get(callSite).get(d4).forEach((d3, fCaller) ->
+                        applySummary(callSite, exit, d2, d3,
+                                fCaller.andThen(fThrough)));
+            }
+        }
+
+        /**
+         * Propagates the fact at the exit of a callee to the return sites
+         * of given call site.
+         *
+         * @param d1 the entry fact of the caller
+         * @param f  the function from d1 to the fact {@code d2} at the exit
+         */
+        private void applySummary(Node callSite, Node exit, D d2,
+                                  D d1, EdgeFunction<V> f) {
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(exit)) {
+                if (edge instanceof ReturnEdge<Node> returnEdge &&
+                        returnEdge.getCallSite().equals(callSite)) {
+                    problem.getReturnFlow(returnEdge, d2).forEach((d5, fRet) ->
+                            propagate(d1, returnEdge.getTarget(), d5, f.andThen(fRet)));
+                }
+            }
+        }
+
+        private void processNormal(D d1, Node node, D d2, EdgeFunction<V> f) {
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                if (edge instanceof NormalEdge<Node> normalEdge) {
+                    problem.getNormalFlow(normalEdge, d2).forEach((d3, fNormal) ->
+                            propagate(d1, normalEdge.getTarget(), d3, f.andThen(fNormal)));
+                }
+            }
+        }
+
+        /**
+         * Meets given function into the jump function from {@code d1} at the
+         * entry to {@code d2} at given node, and adds the path edge to the
+         * work-list if the jump function is changed.
+         */
+        private void propagate(D d1, Node node, D d2, EdgeFunction<V> f) {
+            TwoKeyMap<D, D, EdgeFunction<V>> fns =
+                    jumpFns.computeIfAbsent(node, n -> Maps.newTwoKeyMap());
+            EdgeFunction<V> oldFn = fns.getOrDefault(d2, d1, problem.allTop());
+            EdgeFunction<V> newFn = oldFn.meetWith(f);
+            if (!newFn.equals(oldFn)) {
+                fns.put(d2, d1, newFn);
+                pathEdges.add(new PathEdge<>(d1, node, d2));
+            }
+        }
+    }
+
+    private Map<D, EdgeFunction<V>> getSummary(Method method, D entryFact) {
+        TwoKeyMap<D, D, EdgeFunction<V>> summary = summaries.get(method);
+        Map<D, EdgeFunction<V>> result = summary == null ? null :
+                summary.get(entryFact);
+        return result == null ? Map.of() : result;
+    }
+
+    private boolean isExit(Node node) {
+        return icfg.getExitOf(icfg.getContainingMethodOf(node)).equals(node);
+    }
+
+    // ---------- phase II: values ----------
+    private void computeValues() {
+        // propagate the values to the entries of the methods
+        // and the call sites
+        Deque<Pair<Node, D>> workList = new ArrayDeque<>();
+        D zero = problem.zeroFact();
+        icfg.entryMethods().forEach(m -> {
+            Node entry = icfg.getEntryOf(m);
+            if (setValue(entry, zero, problem.bottomValue())) {
+                workList.add(new Pair<>(entry, zero));
+            }
+        });
+        propagateValues(null, workList);
+        computeNodeValues();
+    }
+
+    /**
+     * Computes the values at the entries and the call sites of the
+     * methods of given SCC, from the values at the entry methods and
+     * at the call sites of the callers in other SCCs.
+     */
+    private void computeEntryValues(Set<Method> scc) {
+        Deque<Pair<Node, D>> workList = new ArrayDeque<>();
+        for (Method method : scc) {
+            Node entry = icfg.getEntryOf(method);
+            if (icfg.entryMethods().anyMatch(method::equals) &&
+                    setValue(entry, problem.zeroFact(), problem.bottomValue())) {
+                workList.add(new Pair<>(entry, problem.zeroFact()));
+            }
+            for (ICFGEdge<Node> edge : icfg.getInEdgesOf(entry)) {
+                if (edge instanceof CallEdge<Node> callEdge &&
+                        !scc.contains(icfg.getContainingMethodOf(edge.getSource()))) {
+                    getValue(callEdge.getSource()).forEach((fact, value) ->
+                            problem.getCallFlow(callEdge, fact).forEach((d, f) -> {
+                                if (setValue(entry, d, f.computeTarget(value))) {
+                                    workList.add(new Pair<>(entry, d));
+                                }
+                            }));
+                }
+            }
+        }
+        propagateValues(scc, workList);
+    }
+
+    /**
+     * Propagates the values from the entries to the call sites and from
+     * the call sites to the entries of the callees in given scope.
+     *
+     * @param scope    the methods to be analyzed, or null for all methods
+     * @param workList the entries and call sites whose values are changed
+     */
+    private void propagateValues(@Nullable Set<Method> scope,
+                                 Deque<Pair<Node, D>> workList) {
+        while (!workList.isEmpty()) {
+            Pair<Node, D> pair = workList.poll();
+            Node node = pair.first();
+            D fact = pair.second();
+            V value = getValue(node).getOrDefault(fact, problem.topValue());
+            if (icfg.isCallSite(node)) {
+                for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                    if (edge instanceof CallEdge<Node> callEdge &&
+                            (scope == null || scope.contains(
+                                    icfg.getContainingMethodOf(edge.getTarget())))) {
+                        Node entry = callEdge.getTarget();
+                        problem.getCallFlow(callEdge, fact).forEach((d, f) -> {
+                            if (setValue(entry, d, f.computeTarget(value))) {
+                                workList.add(new Pair<>(entry, d));
+                            }
+                        });
+                    }
+                }
+            } else {
+                // the node is the entry of a method
+                for (Node callSite : callSites.get(icfg.getContainingMethodOf(node))) {
+                    TwoKeyMap<D, D, EdgeFunction<V>> fns = jumpFns.get(callSite);
+                    if (fns == null) {
+                        continue;
+                    }
+                    fns.forEach((d2, d1, f) -> {
+                        if (d1.equals(fact) &&
+                                setValue(callSite, d2, f.computeTarget(value))) {
+                            workList.add(new Pair<>(callSite, d2));
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the values at all nodes from the values at the entries.
+     * The jump functions from the facts which do not reach the entries
+     * are not applied.
+     */
+    private void computeNodeValues() {
+        Map<Node, Map<D, V>> entryValues = values;
+        values = isParallel ? Maps.newConcurrentMap() : Maps.newMap();
+        Stream<Map.Entry<Node, TwoKeyMap<D, D, EdgeFunction<V>>>> stream =
+                jumpFns.entrySet().stream();
+        (isParallel ? stream.parallel() : stream).forEach(e -> {
+            Node node = e.getKey();
+            Node entry = icfg.getEntryOf(icfg.getContainingMethodOf(node));
+            Map<D, V> entryValue = entryValues.getOrDefault(entry, Map.of());
+            Map<D, V> nodeValues = Maps.newHybridMap();
+            e.getValue().forEach((d2, d1, f) -> {
+                V value = entryValue.get(d1);
+                if (value != null) {
+                    nodeValues.merge(d2, f.computeTarget(value), problem::meetValue);
+                }
+            });
+            values.put(node, nodeValues);
+        });
+    }
+
+    private boolean setValue(Node node, D fact, V value) {
+        Map<D, V> nodeValues = values.computeIfAbsent(node, n -> Maps.newHybridMap());
+        V oldValue = nodeValues.getOrDefault(fact, problem.topValue());
+        V newValue = problem.meetValue(oldValue, value);
+        if (!newValue.equals(oldValue)) {
+            nodeValues.put(fact, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    private Map<D, V> getValue(Node node) {
+        return values.getOrDefault(node, Map.of());
+    }
+
+    /**
+     * @return the values of the facts holding before given node.
+     * The facts which are not in the result have the top value.
+     */
+    Map<D, V> getValuesBefore(Node node) {
+        return Collections.unmodifiableMap(getValue(node));
+    }
+
+    /**
+     * @return the values of the facts holding after given node,
+     * i.e., the values flowing along the normal out edges of the node.
+     * The effects of a call are on its call(-to-return) edges, thus the
+     * values after a call site (and after an exit) are the values before it.
+     */
+    Map<D, V> getValuesAfter(Node node) {
+        Map<D, V> before = getValuesBefore(node);
+        NormalEdge<Node> normalEdge = null;
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+            if (edge instanceof NormalEdge<Node> e) {
+                normalEdge = e;
+                break;
+            }
+        }
+        if (normalEdge == null) {
+            return before;
+        }
+        Map<D, V> after = Maps.newHybridMap();
+        NormalEdge<Node> edge = normalEdge;
+        before.forEach((d, value) ->
+                problem.getNormalFlow(edge, d).forEach((d2, f) ->
+                        after.merge(d2, f.computeTarget(value), problem::meetValue)));
+        return Collections.unmodifiableMap(after);
+    }
+
+    /**
+     * Edge from the fact {@code source} at the entry of the containing
+     * method of {@code node} to the fact {@code target} at {@code node}.
+     */
+    private record PathEdge<Node, D>(D source, Node node, D target) {
+    }
+}
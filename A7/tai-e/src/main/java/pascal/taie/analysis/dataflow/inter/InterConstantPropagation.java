@@ -25,22 +25,30 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.PersistentCPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.*;
+import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
 
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -54,9 +62,87 @@ public class InterConstantPropagation extends
     private final ConstantPropagation cp;
     private PointerAnalysisResult pta;
 
+    /**
+     * Index of the static field accesses, i.e., the stores and the loads
+     * of each static field.
+     */
+    private MultiMap<JField, StoreField> staticFieldStores;
+    private MultiMap<JField, LoadField> staticFieldLoads;
+
+    /**
+     * Alias index of the instance field accesses: the stores which may
+     * write the fields read by each load (and vice versa), i.e., the
+     * accesses of the same field whose bases may point to the same objects.
+     */
+    private MultiMap<LoadField, StoreField> loadToStoreFields;
+    private MultiMap<StoreField, LoadField> storeToLoadFields;
+
+    /**
+     * Alias index of the array accesses: the stores which may write the
+     * arrays read by each load (and vice versa), regardless of the indexes.
+     */
+    private MultiMap<LoadArray, StoreArray> loadToStoreArrays;
+    private MultiMap<StoreArray, LoadArray> storeToLoadArrays;
+
+    /**
+     * Whether to use {@link PersistentCPFact}, whose copies share structure.
+     */
+    private final boolean isPersistent;
+
+    /**
+     * Whether to solve linear constant propagation with {@link IDESolver}
+     * instead of {@link InterSolver}.
+     */
+    private final boolean isIDE;
+
+    /**
+     * Whether {@link IDESolver} solves the SCCs of the call graph in parallel.
+     */
+    private final boolean isParallel;
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
         cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        isPersistent = "persistent".equals(getOptions().getString("fact"));
+        isIDE = "ide".equals(getOptions().getString("solver"));
+        isParallel = getOptions().getBooleanOrDefault("parallel", false);
+        if (isIDE && getOptions().getBoolean("alias-aware")) {
+            // linear constant propagation treats the values loaded from
+            // the heap as NAC, thus it cannot be alias-aware
+            throw new ConfigException("Option alias-aware of " + ID +
+                    " is not supported by solver ide");
+        }
+    }
+
+    @Override
+    public Object analyze() {
+        if (!isIDE) {
+            return super.analyze();
+        }
+        icfg = World.get().getResult(ICFGBuilder.ID);
+        LinearConstantPropagation lcp = new LinearConstantPropagation(icfg, cp);
+        IDESolver<JMethod, Stmt, Var, Value> ideSolver = new IDESolver<>(lcp, icfg, isParallel);
+        ideSolver.solve();
+        // convert the values into facts, so that the results of
+        // both solvers are in the same form
+        ICFGNumbering<Stmt> numbering = new ICFGNumbering<>(icfg);
+        DataflowResult<Stmt, CPFact> result =
+                new DataflowResult<>(numbering::getNumber, numbering.size());
+        for (Stmt stmt : icfg) {
+            result.setInFact(stmt, toFact(ideSolver.getValuesBefore(stmt), lcp));
+            result.setOutFact(stmt, toFact(ideSolver.getValuesAfter(stmt), lcp));
+        }
+        return result;
+    }
+
+    private CPFact toFact(Map<Var, Value> values, LinearConstantPropagation lcp) {
+        CPFact fact = newInitialFact();
+        values.forEach((var, value) -> {
+            if (var != lcp.zeroFact()) {
+                fact.update(var, value);
+            }
+        });
+        return fact;
     }
 
     @Override
@@ -64,6 +150,75 @@ public class InterConstantPropagation extends
         String ptaId = getOptions().getString("pta");
         pta = World.get().getResult(ptaId);
         // You can do initialization work here
+        buildStaticFieldIndex();
+        buildAliasIndex();
+    }
+
+    /**
+     * Builds the index of the static field accesses in the ICFG.
+     */
+    private void buildStaticFieldIndex() {
+        staticFieldStores = Maps.newMultiMap();
+        staticFieldLoads = Maps.newMultiMap();
+        for (Stmt stmt : icfg) {
+            if (stmt instanceof StoreField storeField && storeField.isStatic()) {
+                staticFieldStores.put(storeField.getFieldRef().resolve(), storeField);
+            } else if (stmt instanceof LoadField loadField && loadField.isStatic()) {
+                staticFieldLoads.put(loadField.getFieldRef().resolve(), loadField);
+            }
+        }
+    }
+
+    /**
+     * Builds the alias index of the heap accesses in the ICFG. The stores
+     * are first indexed by the objects (and fields) they may write,
+     * and then each load is matched with the stores of the objects
+     * (and fields) it may read, so that the work is proportional
+     * to the number of the aliased accesses.
+     */
+    private void buildAliasIndex() {
+        MultiMap<Pair<Obj, JField>, StoreField> objFieldStores = Maps.newMultiMap();
+        MultiMap<Obj, StoreArray> objArrayStores = Maps.newMultiMap();
+        for (Stmt stmt : icfg) {
+            if (stmt instanceof StoreField storeField && !storeField.isStatic()) {
+                Var base = ((InstanceFieldAccess) storeField.getFieldAccess()).getBase();
+                Set<Obj> pts = pta.getPointsToSet(base);
+                if (!pts.isEmpty()) {
+                    JField field = storeField.getFieldRef().resolve();
+                    pts.forEach(obj ->
+                            objFieldStores.put(new Pair<>(obj, field), storeField));
+                }
+            } else if (stmt instanceof StoreArray storeArray) {
+                Var base = storeArray.getArrayAccess().getBase();
+                pta.getPointsToSet(base).forEach(obj ->
+                        objArrayStores.put(obj, storeArray));
+            }
+        }
+        loadToStoreFields = Maps.newMultiMap();
+        storeToLoadFields = Maps.newMultiMap();
+        loadToStoreArrays = Maps.newMultiMap();
+        storeToLoadArrays = Maps.newMultiMap();
+        for (Stmt stmt : icfg) {
+            if (stmt instanceof LoadField loadField && !loadField.isStatic()) {
+                Var base = ((InstanceFieldAccess) loadField.getFieldAccess()).getBase();
+                Set<Obj> pts = pta.getPointsToSet(base);
+                JField field = pts.isEmpty() ? null : loadField.getFieldRef().resolve();
+                for (Obj obj : pts) {
+                    for (StoreField storeField : objFieldStores.get(new Pair<>(obj, field))) {
+                        loadToStoreFields.put(loadField, storeField);
+                        storeToLoadFields.put(storeField, loadField);
+                    }
+                }
+            } else if (stmt instanceof LoadArray loadArray) {
+                Var base = loadArray.getArrayAccess().getBase();
+                for (Obj obj : pta.getPointsToSet(base)) {
+                    for (StoreArray storeArray : objArrayStores.get(obj)) {
+                        loadToStoreArrays.put(loadArray, storeArray);
+                        storeToLoadArrays.put(storeArray, loadArray);
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -74,17 +229,24 @@ public class InterConstantPropagation extends
     @Override
     public CPFact newBoundaryFact(Stmt boundary) {
         IR ir = icfg.getContainingMethodOf(boundary).getIR();
-        return cp.newBoundaryFact(ir.getResult(CFGBuilder.ID));
+        CPFact fact = cp.newBoundaryFact(ir.getResult(CFGBuilder.ID));
+        return isPersistent ? PersistentCPFact.of(fact) : fact;
     }
 
     @Override
     public CPFact newInitialFact() {
-        return cp.newInitialFact();
+        return isPersistent ? new PersistentCPFact() : cp.newInitialFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        cp.meetInto(fact, target);
+        if (target.isEmpty()) {
+            // meeting any value with UNDEF results in the value itself,
+            // so just copy the fact, which is O(1) for persistent facts
+            target.copyFrom(fact);
+        } else {
+            cp.meetInto(fact, target);
+        }
     }
 
     @Override
@@ -95,31 +257,13 @@ public class InterConstantPropagation extends
 
     private void transferStoreField(StoreField storeField) {
         if (storeField.isStatic()) {// T.f = x
-            for (Stmt loadStmt : icfg) {
-                if (loadStmt instanceof LoadField loadField
-                        && loadField.isStatic()
-                        && loadField.getFieldRef().resolve() == storeField.getFieldAccess().getFieldRef().resolve()
-                        && loadField.getFieldRef().getDeclaringClass() == storeField.getFieldAccess().getFieldRef().getDeclaringClass()) {
-                    this.solver.getWorkList().add(loadField);
-                }
+            JField field = storeField.getFieldRef().resolve();
+            for (LoadField loadField : staticFieldLoads.get(field)) {
+                this.solver.getWorkList().add(loadField);
             }
         } else {// x.f = y
-            InstanceFieldAccess instanceFieldAccess = (InstanceFieldAccess) storeField.getFieldAccess();
-            Var base = instanceFieldAccess.getBase();
-            Set<Obj> baseSet = new HashSet<>(pta.getPointsToSet(base));
-            for (Var var : pta.getVars()) {
-                Set<Obj> varSet = new HashSet<>(pta.getPointsToSet(var));
-                Set<Obj> resSet = new HashSet<>();
-                resSet.addAll(baseSet);
-                resSet.retainAll(varSet);
-                if (!resSet.isEmpty()) {
-                    for (LoadField loadField : var.getLoadFields()) {
-                        if (!loadField.isStatic()
-                                && loadField.getFieldRef().resolve() == instanceFieldAccess.getFieldRef().resolve()) {
-                            this.solver.getWorkList().add(loadField);
-                        }
-                    }
-                }
+            for (LoadField loadField : storeToLoadFields.get(storeField)) {
+                this.solver.getWorkList().add(loadField);
             }
         }
     }
@@ -127,31 +271,13 @@ public class InterConstantPropagation extends
     private boolean transferLoadField(LoadField loadField, CPFact in, CPFact out) {
         Value value = Value.getUndef();
         if (loadField.isStatic()) {// x = T.f
-            for (Stmt storeStmt : icfg) {
-                if (storeStmt instanceof StoreField storeField
-                        && storeField.isStatic()
-                        && storeField.getFieldRef().resolve() == loadField.getFieldAccess().getFieldRef().resolve()
-                        && storeField.getFieldRef().getDeclaringClass() == loadField.getFieldAccess().getFieldRef().getDeclaringClass()) {
-                    value = cp.meetValue(value, this.solver.getResult().getOutFact(storeField).get(storeField.getRValue()));
-                }
+            JField field = loadField.getFieldRef().resolve();
+            for (StoreField storeField : staticFieldStores.get(field)) {
+                value = cp.meetValue(value, this.solver.getResult().getOutFact(storeField).get(storeField.getRValue()));
             }
         } else {// y = x.f
-            InstanceFieldAccess instanceFieldAccess = (InstanceFieldAccess) loadField.getFieldAccess();
-            Var base = instanceFieldAccess.getBase();
-            Set<Obj> baseSet = new HashSet<>(pta.getPointsToSet(base));
-            for (Var var : pta.getVars()) {
-                Set<Obj> varSet = new HashSet<>(pta.getPointsToSet(var));
-                Set<Obj> resSet = new HashSet<>();
-                resSet.addAll(baseSet);
-                resSet.retainAll(varSet);
-                if (!resSet.isEmpty()) {
-                    for (StoreField storeField : var.getStoreFields()) {
-                        if (!storeField.isStatic()
-                                && storeField.getFieldRef().resolve() == instanceFieldAccess.getFieldRef().resolve()) {
-                            value = cp.meetValue(value, this.solver.getResult().getOutFact(storeField).get(storeField.getRValue()));
-                        }
-                    }
-                }
+            for (StoreField storeField : loadToStoreFields.get(loadField)) {
+                value = cp.meetValue(value, this.solver.getResult().getOutFact(storeField).get(storeField.getRValue()));
             }
         }
         CPFact preOut = out.copy();
@@ -162,45 +288,25 @@ public class InterConstantPropagation extends
 
     private void transferStoreArray(StoreArray storeArray, CPFact in) {
         ArrayAccess arrayAccess = storeArray.getArrayAccess();
-        Var base = arrayAccess.getBase();
-        Set<Obj> baseSet = new HashSet<>(pta.getPointsToSet(base));
-        for (Var var : pta.getVars()) {
-            Set<Obj> varSet = new HashSet<>(pta.getPointsToSet(var));
-            Set<Obj> resSet = new HashSet<>();
-            resSet.addAll(baseSet);
-            resSet.retainAll(varSet);
-            if (!resSet.isEmpty()) {
-                for (LoadArray loadArray : var.getLoadArrays()) {
-                    Var loadIndex = loadArray.getArrayAccess().getIndex();
-                    CPFact loadOutFact = this.solver.getResult().getOutFact(loadArray);
-                    if (isIndexEffect(this.solver.getResult().getOutFact(storeArray).get(arrayAccess.getIndex()), loadOutFact.get(loadIndex))
-                            || isIndexEffect(in.get(arrayAccess.getIndex()), loadOutFact.get(loadIndex))) {
-                        this.solver.getWorkList().add(loadArray);
-                    }
-                }
+        for (LoadArray loadArray : storeToLoadArrays.get(storeArray)) {
+            Var loadIndex = loadArray.getArrayAccess().getIndex();
+            CPFact loadOutFact = this.solver.getResult().getOutFact(loadArray);
+            if (isIndexEffect(this.solver.getResult().getOutFact(storeArray).get(arrayAccess.getIndex()), loadOutFact.get(loadIndex))
+                    || isIndexEffect(in.get(arrayAccess.getIndex()), loadOutFact.get(loadIndex))) {
+                this.solver.getWorkList().add(loadArray);
             }
         }
     }
 
     private boolean transferLoadArray(LoadArray loadArray, CPFact in, CPFact out) {
         ArrayAccess arrayAccess = loadArray.getArrayAccess();
-        Var base = arrayAccess.getBase();
-        Set<Obj> baseSet = new HashSet<>(pta.getPointsToSet(base));
         Value value = Value.getUndef();
-        for (Var var : pta.getVars()) {
-            Set<Obj> varSet = new HashSet<>(pta.getPointsToSet(var));
-            Set<Obj> resSet = new HashSet<>();
-            resSet.addAll(baseSet);
-            resSet.retainAll(varSet);
-            if (!resSet.isEmpty()) {
-                for (StoreArray storeArray : var.getStoreArrays()) {
-                    Var storeIndex = storeArray.getArrayAccess().getIndex();
-                    CPFact storeOutFact = this.solver.getResult().getOutFact(storeArray);
-                    if (isIndexEffect(storeOutFact.get(storeIndex), this.solver.getResult().getOutFact(loadArray).get(arrayAccess.getIndex()))
-                            || isIndexEffect(storeOutFact.get(storeIndex), in.get(arrayAccess.getIndex()))) {
-                        value = cp.meetValue(value, storeOutFact.get(storeArray.getRValue()));
-                    }
-                }
+        for (StoreArray storeArray : loadToStoreArrays.get(loadArray)) {
+            Var storeIndex = storeArray.getArrayAccess().getIndex();
+            CPFact storeOutFact = this.solver.getResult().getOutFact(storeArray);
+            if (isIndexEffect(storeOutFact.get(storeIndex), this.solver.getResult().getOutFact(loadArray).get(arrayAccess.getIndex()))
+                    || isIndexEffect(storeOutFact.get(storeIndex), in.get(arrayAccess.getIndex()))) {
+                value = cp.meetValue(value, storeOutFact.get(storeArray.getRValue()));
             }
         }
         CPFact preOut = out.copy();
@@ -248,7 +354,7 @@ public class InterConstantPropagation extends
     protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
         // TODO - finish me
         Stmt stmt = edge.getSource();
-        CPFact result = new CPFact();
+        CPFact result = newInitialFact();
         if (stmt instanceof Invoke invoke) {
             List<Var> params = edge.getCallee().getIR().getParams();
             for (int i = 0; i < params.size(); i++) {
@@ -262,7 +368,7 @@ public class InterConstantPropagation extends
     protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
         // TODO - finish me
         Stmt stmt = edge.getCallSite();
-        CPFact result = new CPFact();
+        CPFact result = newInitialFact();
         Value value = Value.getUndef();
         for (Var var : edge.getReturnVars()) {
             value = cp.meetValue(value, returnOut.get(var));
@@ -23,11 +23,12 @@
 package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.util.collection.Maps;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Map;
 
 /**
  * Solver for inter-procedural data-flow analysis.
@@ -42,18 +43,48 @@ class InterSolver<Method, Node, Fact> {
 
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    /**
+     * Global numbering of the ICFG nodes, which orders the work-list
+     * and indexes the result.
+     */
+    private ICFGNumbering<Node> numbering;
+
+    private InterWorkList<Node> workList;
+
+    /**
+     * ID under which the metrics of solving are recorded in
+     * {@link SolverMetrics}, or null if the metrics are not recorded.
+     */
+    private final String metricsId;
+
+    /**
+     * Metrics of the methods, which are recorded by the containing
+     * methods of the processed nodes. The wall time of a method is
+     * the time spent on processing its nodes.
+     */
+    private Map<Method, SolverMetrics.Entry> metrics;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
-                ICFG<Method, Node> icfg) {
+                ICFG<Method, Node> icfg, String metricsId) {
         this.analysis = analysis;
         this.icfg = icfg;
+        this.metricsId = metricsId;
     }
 
     DataflowResult<Node, Fact> solve() {
-        result = new DataflowResult<>();
+        numbering = new ICFGNumbering<>(icfg);
+        // the nodes out of the ICFG are not numbered, and their
+        // facts (if any) are kept in the maps of the result
+        result = new DataflowResult<>(numbering::getNumber, numbering.size());
+        if (metricsId != null) {
+            metrics = Maps.newMap();
+        }
         initialize();
         doSolve();
+        if (metrics != null) {
+            metrics.values().forEach(SolverMetrics::add);
+            metrics = null;
+        }
         return result;
     }
 
@@ -75,23 +106,38 @@ class InterSolver<Method, Node, Fact> {
 
     private void doSolve() {
         // TODO - finish me
-        workList = new LinkedList<>(icfg.getNodes());
+        workList = new InterWorkList<>(numbering);
         while (!workList.isEmpty()) {
             Node node = workList.poll();
+            SolverMetrics.Entry entry = metrics != null ? getMetrics(node) : null;
+            long start = entry != null ? System.nanoTime() : 0L;
             Fact in = result.getInFact(node);
             Fact out = result.getOutFact(node);
             for (ICFGEdge<Node> edge : icfg.getInEdgesOf(node)) {
                 analysis.meetInto(analysis.transferEdge(edge, result.getOutFact((edge.getSource()))), in);
+                if (entry != null) {
+                    entry.addMeet();
+                }
             }
             result.setInFact(node, in);
-            if (analysis.transferNode(node, in, out)) {
+            boolean changed = analysis.transferNode(node, in, out);
+            if (changed) {
                 workList.addAll(icfg.getSuccsOf(node));
             }
             result.setOutFact(node, out);
+            if (entry != null) {
+                entry.addVisit(changed, SolverMetrics.sizeOf(out));
+                entry.addNanos(System.nanoTime() - start);
+            }
         }
     }
 
-    public Queue<Node> getWorkList() {
+    private SolverMetrics.Entry getMetrics(Node node) {
+        return metrics.computeIfAbsent(icfg.getContainingMethodOf(node),
+                m -> new SolverMetrics.Entry(metricsId, m.toString()));
+    }
+
+    public InterWorkList<Node> getWorkList() {
         return workList;
     }
 
@@ -0,0 +1,113 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Work-list of ICFG nodes for {@link InterSolver}. A work-list never
+ * holds duplicate nodes, and it always processes the pending node
+ * of the smallest number in given {@link ICFGNumbering}, so the nodes
+ * are mostly processed after their predecessors. Initially, it contains
+ * all nodes of the ICFG.
+ * <p>
+ * Besides the solver, the analyses may add nodes to the work-list to
+ * re-evaluate them, e.g., the loads of a field after a store to the field
+ * changes; adding a pending node has no effect.
+ *
+ * @param <Node> type of ICFG nodes
+ */
+class InterWorkList<Node> {
+
+    private final ICFGNumbering<Node> numbering;
+
+    /**
+     * Numbers of the pending nodes.
+     */
+    private final BitSet pending;
+
+    InterWorkList(ICFGNumbering<Node> numbering) {
+        this.numbering = numbering;
+        this.pending = new BitSet(numbering.size());
+        pending.set(0, numbering.size());
+    }
+
+    /**
+     * Adds a node to this work-list.
+     *
+     * @return true if the node was not in this work-list, otherwise false.
+     */
+    boolean add(Node node) {
+        int number = numbering.getNumber(node);
+        if (number < 0) {
+            throw new IllegalArgumentException(node + " is not in the ICFG");
+        }
+        if (pending.get(number)) {
+            return false;
+        }
+        pending.set(number);
+        return true;
+    }
+
+    /**
+     * Adds given nodes to this work-list.
+     *
+     * @return true if any of the nodes was not in this work-list.
+     */
+    boolean addAll(Collection<? extends Node> nodes) {
+        boolean changed = false;
+        for (Node node : nodes) {
+            changed |= add(node);
+        }
+        return changed;
+    }
+
+    /**
+     * @return true if given node is pending in this work-list.
+     */
+    boolean contains(Node node) {
+        int number = numbering.getNumber(node);
+        return number >= 0 && pending.get(number);
+    }
+
+    /**
+     * Removes and returns the pending node of the smallest number.
+     */
+    Node poll() {
+        int number = pending.nextSetBit(0);
+        pending.clear(number);
+        return numbering.getNode(number);
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * @return the number of pending nodes.
+     */
+    int size() {
+        return pending.cardinality();
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.NegExp;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation.canHoldInt;
+
+/**
+ * Linear constant propagation as an IDE problem. The facts are the
+ * variables which can hold int values, and the values are the
+ * constant propagation {@link Value}s. The assignments of the form
+ * {@code x = a*y+b}, where {@code a} and {@code b} are literals
+ * (or temporary constant variables), are modeled by linear edge functions,
+ * and the other assignments of int variables make them NAC unless
+ * all their operands are constants. The heap is not modeled,
+ * thus the values loaded from fields and arrays are NAC.
+ */
+class LinearConstantPropagation implements IDEProblem<Stmt, Var, Value> {
+
+    /**
+     * The zero fact, which is not a variable of the program.
+     */
+    private static final Var ZERO = new Var(null, "<zero>", null, -1);
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    private final ConstantPropagation cp;
+
+    /**
+     * Entries of the entry methods.
+     */
+    private final Set<Stmt> entries;
+
+    LinearConstantPropagation(ICFG<JMethod, Stmt> icfg, ConstantPropagation cp) {
+        this.icfg = icfg;
+        this.cp = cp;
+        this.entries = icfg.entryMethods()
+                .map(icfg::getEntryOf)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Var zeroFact() {
+        return ZERO;
+    }
+
+    @Override
+    public Set<Var> getEntryFacts(Stmt entry) {
+        Set<Var> facts = Sets.newHybridSet();
+        facts.add(ZERO);
+        for (Var param : icfg.getContainingMethodOf(entry).getIR().getParams()) {
+            if (canHoldInt(param)) {
+                facts.add(param);
+            }
+        }
+        return facts;
+    }
+
+    @Override
+    public Map<Var, EdgeFunction<Value>> getNormalFlow(NormalEdge<Stmt> edge, Var fact) {
+        Stmt stmt = edge.getSource();
+        if (fact == ZERO && entries.contains(stmt)) {
+            // the int parameters of the entry methods are NAC
+            Map<Var, EdgeFunction<Value>> result = Maps.newHybridMap();
+            result.put(ZERO, LinearFunction.identity());
+            for (Var param : icfg.getContainingMethodOf(stmt).getIR().getParams()) {
+                if (canHoldInt(param)) {
+                    result.put(param, LinearFunction.bottom());
+                }
+            }
+            return result;
+        }
+        if (stmt instanceof DefinitionStmt<?, ?> definitionStmt &&
+                definitionStmt.getLValue() instanceof Var def &&
+                canHoldInt(def)) {
+            Map<Var, EdgeFunction<Value>> result = Maps.newHybridMap();
+            if (!fact.equals(def)) {
+                result.put(fact, LinearFunction.identity());
+            }
+            Pair<Var, LinearFunction> gen = getGen(definitionStmt.getRValue());
+            if (fact.equals(gen.first()) && gen.second() != LinearFunction.top()) {
+                result.put(def, gen.second());
+            }
+            return result;
+        }
+        return Map.of(fact, LinearFunction.identity());
+    }
+
+    /**
+     * @return the fact which the value assigned by given expression
+     * depends on, and the edge function which computes the value.
+     */
+    private static Pair<Var, LinearFunction> getGen(RValue rvalue) {
+        if (rvalue instanceof IntLiteral literal) {
+            return new Pair<>(ZERO, LinearFunction.constant(
+                    Value.makeConstant(literal.getValue())));
+        } else if (rvalue instanceof Var var && canHoldInt(var)) {
+            return getGen(var);
+        } else if (rvalue instanceof NegExp negExp) {
+            Integer c = getConstant(negExp.getOperand());
+            return c != null ?
+                    new Pair<>(ZERO, LinearFunction.constant(Value.makeConstant(-c))) :
+                    new Pair<>(negExp.getOperand(), LinearFunction.linear(-1, 0));
+        } else if (rvalue instanceof BinaryExp binaryExp) {
+            return getGen(binaryExp);
+        }
+        return new Pair<>(ZERO, LinearFunction.bottom());
+    }
+
+    /**
+     * @return the fact and the function for copying given variable,
+     * where the temporary constant variables are taken as literals.
+     */
+    private static Pair<Var, LinearFunction> getGen(Var var) {
+        Integer c = getConstant(var);
+        return c != null ?
+                new Pair<>(ZERO, LinearFunction.constant(Value.makeConstant(c))) :
+                new Pair<>(var, LinearFunction.identity());
+    }
+
+    private static Pair<Var, LinearFunction> getGen(BinaryExp exp) {
+        Var v1 = exp.getOperand1(), v2 = exp.getOperand2();
+        Integer c1 = getConstant(v1), c2 = getConstant(v2);
+        if (c1 != null && c2 != null) {
+            CPFact operands = new CPFact();
+            operands.update(v1, Value.makeConstant(c1));
+            operands.update(v2, Value.makeConstant(c2));
+            return new Pair<>(ZERO, LinearFunction.constant(
+                    ConstantPropagation.evaluate(exp, operands)));
+        }
+        if (exp instanceof ArithmeticExp arithmeticExp) {
+            switch (arithmeticExp.getOperator()) {
+                case ADD -> {
+                    if (c2 != null) {
+                        return new Pair<>(v1, LinearFunction.linear(1, c2));
+                    } else if (c1 != null) {
+                        return new Pair<>(v2, LinearFunction.linear(1, c1));
+                    }
+                }
+                case SUB -> {
+                    if (c2 != null) {
+                        return new Pair<>(v1, LinearFunction.linear(1, -c2));
+                    } else if (c1 != null) {
+                        return new Pair<>(v2, LinearFunction.linear(-1, c1));
+                    }
+                }
+                case MUL -> {
+                    if (c2 != null) {
+                        return new Pair<>(v1, LinearFunction.linear(c2, 0));
+                    } else if (c1 != null) {
+                        return new Pair<>(v2, LinearFunction.linear(c1, 0));
+                    }
+                }
+                case DIV, REM -> {
+                    if (c2 != null && c2 == 0) { // x / 0 is UNDEF
+                        return new Pair<>(ZERO, LinearFunction.top());
+                    }
+                }
+            }
+        }
+        return new Pair<>(ZERO, LinearFunction.bottom());
+    }
+
+    /**
+     * @return the int value of given variable if it is a temporary
+     * variable holding an int literal, otherwise null.
+     */
+    private static Integer getConstant(Var var) {
+        if (var.isTempConst() &&
+                var.getTempConstValue() instanceof IntLiteral literal) {
+            return literal.getValue();
+        }
+        return null;
+    }
+
+    @Override
+    public Map<Var, EdgeFunction<Value>> getCallToReturnFlow(
+            CallToReturnEdge<Stmt> edge, Var fact) {
+        // the value of the result variable comes from the return edges
+        LValue result = ((Invoke) edge.getSource()).getLValue();
+        return fact.equals(result) ? Map.of() :
+                Map.of(fact, LinearFunction.identity());
+    }
+
+    @Override
+    public Map<Var, EdgeFunction<Value>> getCallFlow(CallEdge<Stmt> edge, Var fact) {
+        Invoke invoke = (Invoke) edge.getSource();
+        List<Var> args = invoke.getInvokeExp().getArgs();
+        List<Var> params = edge.getCallee().getIR().getParams();
+        Map<Var, EdgeFunction<Value>> result = Maps.newHybridMap();
+        if (fact == ZERO) {
+            result.put(ZERO, LinearFunction.identity());
+        }
+        for (int i = 0; i < params.size(); i++) {
+            if (canHoldInt(params.get(i))) {
+                Pair<Var, LinearFunction> gen = getGen(args.get(i));
+                if (fact.equals(gen.first())) {
+                    result.put(params.get(i), gen.second());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Var, EdgeFunction<Value>> getReturnFlow(ReturnEdge<Stmt> edge, Var fact) {
+        Map<Var, EdgeFunction<Value>> result = Maps.newHybridMap();
+        if (fact == ZERO) {
+            result.put(ZERO, LinearFunction.identity());
+        }
+        Var def = ((Invoke) edge.getCallSite()).getLValue();
+        if (def != null && canHoldInt(def)) {
+            for (Var returnVar : edge.getReturnVars()) {
+                Pair<Var, LinearFunction> gen = getGen(returnVar);
+                if (fact.equals(gen.first())) {
+                    result.merge(def, gen.second(), EdgeFunction::meetWith);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public EdgeFunction<Value> identity() {
+        return LinearFunction.identity();
+    }
+
+    @Override
+    public EdgeFunction<Value> allTop() {
+        return LinearFunction.top();
+    }
+
+    @Override
+    public Value topValue() {
+        return Value.getUndef();
+    }
+
+    @Override
+    public Value bottomValue() {
+        return Value.getNAC();
+    }
+
+    @Override
+    public Value meetValue(Value v1, Value v2) {
+        return cp.meetValue(v1, v2);
+    }
+}
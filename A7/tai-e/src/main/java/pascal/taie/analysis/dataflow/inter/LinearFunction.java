@@ -0,0 +1,147 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+
+/**
+ * Edge functions of linear constant propagation, i.e., the functions
+ * of the form {@code λx.a*x+b} (with the wrap-around arithmetic of int),
+ * together with {@code λx.UNDEF} (top) and {@code λx.NAC} (bottom).
+ * A linear function maps UNDEF to UNDEF and NAC to NAC, except that
+ * the function with {@code a == 0} is the constant {@code b}.
+ * The meet of different functions is approximated by bottom, thus each
+ * jump function changes at most twice in {@link IDESolver}.
+ */
+final class LinearFunction implements EdgeFunction<Value> {
+
+    private static final LinearFunction TOP = new LinearFunction(0, 0);
+
+    private static final LinearFunction BOTTOM = new LinearFunction(0, 0);
+
+    private static final LinearFunction IDENTITY = new LinearFunction(1, 0);
+
+    private final int a;
+
+    private final int b;
+
+    private LinearFunction(int a, int b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    static LinearFunction top() {
+        return TOP;
+    }
+
+    static LinearFunction bottom() {
+        return BOTTOM;
+    }
+
+    static LinearFunction identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * @return the function {@code λx.a*x+b}.
+     */
+    static LinearFunction linear(int a, int b) {
+        return a == 1 && b == 0 ? IDENTITY : new LinearFunction(a, b);
+    }
+
+    /**
+     * @return the function which maps every value to given value.
+     */
+    static LinearFunction constant(Value value) {
+        if (value.isConstant()) {
+            return new LinearFunction(0, value.getConstant());
+        }
+        return value.isNAC() ? BOTTOM : TOP;
+    }
+
+    @Override
+    public Value computeTarget(Value source) {
+        if (this == TOP) {
+            return Value.getUndef();
+        } else if (this == BOTTOM) {
+            return Value.getNAC();
+        } else if (a == 0) {
+            return Value.makeConstant(b);
+        } else if (source.isConstant()) {
+            return Value.makeConstant(a * source.getConstant() + b);
+        } else {
+            return source;
+        }
+    }
+
+    @Override
+    public LinearFunction andThen(EdgeFunction<Value> next) {
+        LinearFunction f = (LinearFunction) next;
+        if (f.a == 0) { // top, bottom and the constants ignore their inputs
+            return f;
+        } else if (this == TOP || this == BOTTOM) {
+            return this;
+        } else {
+            return linear(f.a * a, f.a * b + f.b);
+        }
+    }
+
+    @Override
+    public LinearFunction meetWith(EdgeFunction<Value> other) {
+        LinearFunction f = (LinearFunction) other;
+        if (this == TOP || equals(f)) {
+            return f;
+        } else if (f == TOP) {
+            return this;
+        } else {
+            return BOTTOM;
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LinearFunction f)
+                || this == TOP || this == BOTTOM || f == TOP || f == BOTTOM) {
+            return false;
+        }
+        return a == f.a && b == f.b;
+    }
+
+    @Override
+    public int hashCode() {
+        return this == TOP ? -1 : this == BOTTOM ? -2 : 31 * a + b;
+    }
+
+    @Override
+    public String toString() {
+        if (this == TOP) {
+            return "λx.UNDEF";
+        } else if (this == BOTTOM) {
+            return "λx.NAC";
+        } else {
+            return "λx." + a + "*x+" + b;
+        }
+    }
+}
@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.Indexable;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -67,7 +68,10 @@ public abstract class Solver<Node, Fact> {
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        // the indexes of the statements of a CFG
+        // are less than the number of its nodes
+        DataflowResult<Node, Fact> result = new DataflowResult<>(
+                Solver::indexOf, cfg.getNumberOfNodes());
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,6 +80,10 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    private static int indexOf(Object node) {
+        return node instanceof Indexable indexable ? indexable.getIndex() : -1;
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // Unused
     }
@@ -0,0 +1,220 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Registry of the metrics of data-flow solvers. If option "metrics" of
+ * an analysis is true, its solver records the metrics of each method
+ * in this registry, which can be dumped as JSON or CSV, e.g., by
+ * option "metrics" of {@link pascal.taie.analysis.ResultProcessor}.
+ * The solvers of the analyses without this option are not instrumented.
+ */
+public final class SolverMetrics {
+
+    private static final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    private SolverMetrics() {
+    }
+
+    /**
+     * Metrics of solving an analysis on a method.
+     */
+    public static final class Entry {
+
+        private final String analysis;
+
+        private final String method;
+
+        /**
+         * Number of calls to the node transfer function.
+         */
+        private long visits;
+
+        /**
+         * Number of calls to the node transfer function which changed the fact.
+         */
+        private long changes;
+
+        /**
+         * Number of calls to the meet function.
+         */
+        private long meets;
+
+        /**
+         * Maximum size of the facts produced by the node transfer function,
+         * or -1 if the size of the facts is unknown.
+         */
+        private int maxFactSize = -1;
+
+        /**
+         * Wall time of solving in nanoseconds.
+         */
+        private long nanos;
+
+        public Entry(String analysis, String method) {
+            this.analysis = analysis;
+            this.method = method;
+        }
+
+        /**
+         * Records a call to the node transfer function.
+         *
+         * @param changed  whether the call changed the fact
+         * @param factSize size of the resulting fact, see {@link #sizeOf(Object)}
+         */
+        public void addVisit(boolean changed, int factSize) {
+            ++visits;
+            if (changed) {
+                ++changes;
+            }
+            maxFactSize = Math.max(maxFactSize, factSize);
+        }
+
+        /**
+         * Records a call to the meet function.
+         */
+        public void addMeet() {
+            ++meets;
+        }
+
+        public void addNanos(long nanos) {
+            this.nanos += nanos;
+        }
+
+        public String getAnalysis() {
+            return analysis;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getVisits() {
+            return visits;
+        }
+
+        public long getChanges() {
+            return changes;
+        }
+
+        public long getMeets() {
+            return meets;
+        }
+
+        public int getMaxFactSize() {
+            return maxFactSize;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    /**
+     * Adds the metrics of a finished solving to this registry.
+     */
+    public static void add(Entry entry) {
+        entries.add(entry);
+    }
+
+    /**
+     * @return the recorded metrics, sorted by analysis and method.
+     */
+    public static List<Entry> getEntries() {
+        return entries.stream()
+                .sorted(Comparator.comparing(Entry::getAnalysis)
+                        .thenComparing(Entry::getMethod))
+                .toList();
+    }
+
+    /**
+     * Clears the recorded metrics.
+     */
+    public static void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the size of given fact, or -1 if it is unknown.
+     */
+    public static int sizeOf(Object fact) {
+        return fact instanceof MapFact<?, ?> mapFact ? mapFact.size() : -1;
+    }
+
+    /**
+     * Dumps the recorded metrics to given file, in CSV if the file
+     * name ends with ".csv", otherwise in JSON.
+     */
+    public static void dump(String file) {
+        try (PrintStream out = new PrintStream(file)) {
+            List<Entry> sorted = getEntries();
+            if (file.endsWith(".csv")) {
+                dumpCSV(out, sorted);
+            } else {
+                dumpJSON(out, sorted);
+            }
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException("Failed to open metrics file", e);
+        }
+    }
+
+    private static void dumpCSV(PrintStream out, List<Entry> entries) {
+        out.println("analysis,method,visits,changes,meets,max-fact-size,nanos");
+        for (Entry e : entries) {
+            out.printf("%s,%s,%d,%d,%d,%d,%d%n",
+                    quoteCSV(e.analysis), quoteCSV(e.method),
+                    e.visits, e.changes, e.meets, e.maxFactSize, e.nanos);
+        }
+    }
+
+    private static String quoteCSV(String s) {
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static void dumpJSON(PrintStream out, List<Entry> entries) {
+        out.println("[");
+        for (int i = 0; i < entries.size(); ++i) {
+            Entry e = entries.get(i);
+            out.printf("  {\"analysis\": %s, \"method\": %s, \"visits\": %d, " +
+                            "\"changes\": %d, \"meets\": %d, " +
+                            "\"maxFactSize\": %d, \"nanos\": %d}%s%n",
+                    quoteJSON(e.analysis), quoteJSON(e.method),
+                    e.visits, e.changes, e.meets, e.maxFactSize, e.nanos,
+                    i + 1 < entries.size() ? "," : "");
+        }
+        out.println("]");
+    }
+
+    private static String quoteJSON(String s) {
+        return '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
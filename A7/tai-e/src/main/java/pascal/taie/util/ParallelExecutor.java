@@ -0,0 +1,69 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs tasks in a dedicated {@link ForkJoinPool} with configurable
+ * parallelism. Parallel streams started by a task, e.g., the solving of
+ * independent call-graph SCCs in the IDE solver, are executed by the
+ * worker threads of the same pool instead of the common pool.
+ */
+public final class ParallelExecutor {
+
+    /**
+     * System property to specify the parallelism, which defaults to
+     * the number of available processors.
+     */
+    public static final String PARALLELISM = "taie.parallelism";
+
+    private ParallelExecutor() {
+    }
+
+    /**
+     * @return the parallelism given by system property {@link #PARALLELISM}.
+     */
+    public static int getParallelism() {
+        int parallelism = Integer.getInteger(PARALLELISM,
+                Runtime.getRuntime().availableProcessors());
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(
+                    "Illegal parallelism: " + parallelism);
+        }
+        return parallelism;
+    }
+
+    /**
+     * Runs the task in a new pool of given parallelism, and waits for
+     * it to complete.
+     */
+    public static void run(int parallelism, Runnable task) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(task).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
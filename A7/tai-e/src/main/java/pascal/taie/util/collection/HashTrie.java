@@ -0,0 +1,628 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Persistent (immutable) hash map implemented as a hash array mapped trie,
+ * in the compressed form of CHAMP (M. J. Steindorfer and J. J. Vinju,
+ * "Optimizing hash-array mapped tries for fast and lean immutable JVM
+ * collections"). The operations that modify a trie return a new trie,
+ * which shares all unmodified nodes with the old one, thus they only
+ * copy the path from the root to the modified node, and "copying"
+ * a trie is free.
+ * <p>
+ * The shape of a trie only depends on its entries (not the history of
+ * the operations), and each node caches the size and the hash code of its
+ * entries. Thus, two tries can be compared node by node, and shared or
+ * unequal subtries are mostly recognized without visiting their entries.
+ * <p>
+ * This class does not permit null keys or values.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public final class HashTrie<K, V> {
+
+    private static final HashTrie<?, ?> EMPTY =
+            new HashTrie<>(new BitmapNode(0, 0, new Object[0]));
+
+    /**
+     * Number of hash bits consumed by each level of the trie.
+     */
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Shift of the deepest level which still consumes hash bits.
+     */
+    private static final int MAX_SHIFT = 30;
+
+    private final Node root;
+
+    private HashTrie(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> HashTrie<K, V> empty() {
+        return (HashTrie<K, V>) EMPTY;
+    }
+
+    private HashTrie<K, V> of(Node newRoot) {
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot.size == 0 ? empty() : new HashTrie<>(newRoot);
+    }
+
+    public int size() {
+        return root.size;
+    }
+
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    /**
+     * @return the value of given key, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        return (V) root.get(key, key.hashCode(), 0);
+    }
+
+    /**
+     * @return a trie which maps given key to given value, and has the same
+     * other entries as this trie. If this trie already maps the key to
+     * an equal value, then this trie itself is returned.
+     */
+    public HashTrie<K, V> put(K key, V value) {
+        Objects.requireNonNull(value);
+        return of(root.put(key, key.hashCode(), value, 0));
+    }
+
+    /**
+     * @return a trie which has the entries of this trie except the one
+     * of given key. If the key is absent, then this trie itself is returned.
+     */
+    public HashTrie<K, V> remove(K key) {
+        return of(root.remove(key, key.hashCode(), 0));
+    }
+
+    /**
+     * @return a trie which has all entries of given trie, and the entries
+     * of this trie whose keys are absent in given trie. If the result is
+     * equal to this trie, then this trie itself is returned.
+     */
+    public HashTrie<K, V> putAll(HashTrie<K, V> other) {
+        if (isEmpty()) {
+            return other;
+        }
+        return of(root.putAll(other.root, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HashTrie<?, ?> that)) {
+            return false;
+        }
+        return root.equals(that.root);
+    }
+
+    /**
+     * @return the hash code of this trie, which is the sum of the hash codes
+     * of all entries as in {@link java.util.Map#hashCode()}. It is cached.
+     */
+    @Override
+    public int hashCode() {
+        return root.hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(k).append('=').append(v);
+        });
+        return builder.append('}').toString();
+    }
+
+    private static int entryHash(Object key, Object value) {
+        return key.hashCode() ^ value.hashCode();
+    }
+
+    private static int bitOf(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Node of the trie. A node is never modified after construction.
+     */
+    private abstract static class Node {
+
+        /**
+         * Number of entries in the subtrie of this node.
+         */
+        final int size;
+
+        /**
+         * Sum of hash codes of the entries in the subtrie of this node.
+         */
+        final int hash;
+
+        Node(int size, int hash) {
+            this.size = size;
+            this.hash = hash;
+        }
+
+        abstract Object get(Object key, int keyHash, int shift);
+
+        abstract Node put(Object key, int keyHash, Object value, int shift);
+
+        abstract Node remove(Object key, int keyHash, int shift);
+
+        abstract Node putAll(Node other, int shift);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+
+        /**
+         * @return the key of the only entry of this node.
+         * Only applicable to nodes of size 1.
+         */
+        abstract Object singleKey();
+
+        abstract Object singleValue();
+
+        /**
+         * Creates a node of two entries with different keys.
+         */
+        static Node merge(Object key1, int hash1, Object value1,
+                          Object key2, int hash2, Object value2, int shift) {
+            if (shift > MAX_SHIFT) {
+                return new CollisionNode(hash1,
+                        new Object[]{ key1, value1, key2, value2 });
+            }
+            int bit1 = bitOf(hash1, shift);
+            int bit2 = bitOf(hash2, shift);
+            if (bit1 == bit2) {
+                Node child = merge(key1, hash1, value1,
+                        key2, hash2, value2, shift + BITS);
+                return new BitmapNode(0, bit1, new Object[]{ child });
+            } else if (Integer.compareUnsigned(bit1, bit2) < 0) {
+                return new BitmapNode(bit1 | bit2, 0,
+                        new Object[]{ key1, value1, key2, value2 });
+            } else {
+                return new BitmapNode(bit1 | bit2, 0,
+                        new Object[]{ key2, value2, key1, value1 });
+            }
+        }
+    }
+
+    /**
+     * Node which stores its entries and child nodes in a compressed array,
+     * i.e., the entries (as key-value pairs) in the order of their bits in
+     * {@code dataMap}, followed by the child nodes in the order of their
+     * bits in {@code nodeMap}.
+     */
+    private static final class BitmapNode extends Node {
+
+        private final int dataMap;
+
+        private final int nodeMap;
+
+        private final Object[] content;
+
+        BitmapNode(int dataMap, int nodeMap, Object[] content) {
+            super(computeSize(dataMap, nodeMap, content),
+                    computeHash(dataMap, nodeMap, content));
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private static int computeSize(int dataMap, int nodeMap, Object[] content) {
+            int size = Integer.bitCount(dataMap);
+            int base = 2 * size;
+            for (int i = 0; i < Integer.bitCount(nodeMap); ++i) {
+                size += ((Node) content[base + i]).size;
+            }
+            return size;
+        }
+
+        private static int computeHash(int dataMap, int nodeMap, Object[] content) {
+            int hash = 0;
+            int base = 2 * Integer.bitCount(dataMap);
+            for (int i = 0; i < base; i += 2) {
+                hash += entryHash(content[i], content[i + 1]);
+            }
+            for (int i = 0; i < Integer.bitCount(nodeMap); ++i) {
+                hash += ((Node) content[base + i]).hash;
+            }
+            return hash;
+        }
+
+        private int dataIndex(int bit) {
+            return 2 * Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return 2 * Integer.bitCount(dataMap)
+                    + Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @Override
+        Object get(Object key, int keyHash, int shift) {
+            int bit = bitOf(keyHash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = dataIndex(bit);
+                return key.equals(content[i]) ? content[i + 1] : null;
+            } else if ((nodeMap & bit) != 0) {
+                return ((Node) content[nodeIndex(bit)])
+                        .get(key, keyHash, shift + BITS);
+            } else {
+                return null;
+            }
+        }
+
+        @Override
+        Node put(Object key, int keyHash, Object value, int shift) {
+            int bit = bitOf(keyHash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = dataIndex(bit);
+                Object oldKey = content[i];
+                if (key.equals(oldKey)) {
+                    if (value.equals(content[i + 1])) {
+                        return this;
+                    }
+                    Object[] newContent = content.clone();
+                    newContent[i + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, newContent);
+                }
+                Node child = merge(oldKey, oldKey.hashCode(), content[i + 1],
+                        key, keyHash, value, shift + BITS);
+                return dataToNode(bit, child);
+            } else if ((nodeMap & bit) != 0) {
+                int i = nodeIndex(bit);
+                Node child = (Node) content[i];
+                Node newChild = child.put(key, keyHash, value, shift + BITS);
+                return newChild == child ? this : replaceNode(i, newChild);
+            } else {
+                // insert the entry
+                int i = dataIndex(bit);
+                Object[] newContent = new Object[content.length + 2];
+                System.arraycopy(content, 0, newContent, 0, i);
+                newContent[i] = key;
+                newContent[i + 1] = value;
+                System.arraycopy(content, i, newContent, i + 2,
+                        content.length - i);
+                return new BitmapNode(dataMap | bit, nodeMap, newContent);
+            }
+        }
+
+        @Override
+        Node remove(Object key, int keyHash, int shift) {
+            int bit = bitOf(keyHash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = dataIndex(bit);
+                if (!key.equals(content[i])) {
+                    return this;
+                }
+                Object[] newContent = new Object[content.length - 2];
+                System.arraycopy(content, 0, newContent, 0, i);
+                System.arraycopy(content, i + 2, newContent, i,
+                        content.length - i - 2);
+                return new BitmapNode(dataMap ^ bit, nodeMap, newContent);
+            } else if ((nodeMap & bit) != 0) {
+                int i = nodeIndex(bit);
+                Node child = (Node) content[i];
+                Node newChild = child.remove(key, keyHash, shift + BITS);
+                if (newChild == child) {
+                    return this;
+                } else if (newChild.size == 1) {
+                    // keep the trie canonical by inlining the single entry
+                    return nodeToData(bit, newChild.singleKey(),
+                            newChild.singleValue());
+                } else {
+                    return replaceNode(i, newChild);
+                }
+            } else {
+                return this;
+            }
+        }
+
+        @Override
+        Node putAll(Node other, int shift) {
+            if (other == this || other.size == 0) {
+                return this;
+            }
+            BitmapNode that = (BitmapNode) other;
+            Node result = this;
+            // entries of other
+            for (int i = 0; i < 2 * Integer.bitCount(that.dataMap); i += 2) {
+                Object key = that.content[i];
+                result = result.put(key, key.hashCode(),
+                        that.content[i + 1], shift);
+            }
+            // child nodes of other
+            int base = 2 * Integer.bitCount(that.dataMap);
+            int nodeMap = that.nodeMap;
+            for (int i = 0; nodeMap != 0; ++i) {
+                int bit = Integer.lowestOneBit(nodeMap);
+                nodeMap ^= bit;
+                Node otherChild = (Node) that.content[base + i];
+                result = ((BitmapNode) result).putChild(bit, otherChild, shift);
+            }
+            return result;
+        }
+
+        /**
+         * Puts all entries of given child node, which is at given bit
+         * of the other node, to this node.
+         */
+        private Node putChild(int bit, Node otherChild, int shift) {
+            if ((nodeMap & bit) != 0) {
+                int i = nodeIndex(bit);
+                Node child = (Node) content[i];
+                Node newChild = child.putAll(otherChild, shift + BITS);
+                return newChild == child ? this : replaceNode(i, newChild);
+            } else if ((dataMap & bit) != 0) {
+                // the entry of this node survives only if its key
+                // is absent in the other child
+                int i = dataIndex(bit);
+                Object key = content[i];
+                int keyHash = key.hashCode();
+                Node newChild = otherChild.get(key, keyHash, shift + BITS) != null
+                        ? otherChild
+                        : otherChild.put(key, keyHash, content[i + 1], shift + BITS);
+                return dataToNode(bit, newChild);
+            } else {
+                // insert the other child as a whole
+                int i = nodeIndex(bit);
+                Object[] newContent = new Object[content.length + 1];
+                System.arraycopy(content, 0, newContent, 0, i);
+                newContent[i] = otherChild;
+                System.arraycopy(content, i, newContent, i + 1,
+                        content.length - i);
+                return new BitmapNode(dataMap, nodeMap | bit, newContent);
+            }
+        }
+
+        private BitmapNode replaceNode(int i, Node newChild) {
+            Object[] newContent = content.clone();
+            newContent[i] = newChild;
+            return new BitmapNode(dataMap, nodeMap, newContent);
+        }
+
+        /**
+         * Replaces the entry at given bit by given child node.
+         */
+        private BitmapNode dataToNode(int bit, Node child) {
+            int di = dataIndex(bit);
+            int ni = nodeIndex(bit) - 2; // index after removing the entry
+            Object[] newContent = new Object[content.length - 1];
+            System.arraycopy(content, 0, newContent, 0, di);
+            System.arraycopy(content, di + 2, newContent, di, ni - di);
+            newContent[ni] = child;
+            System.arraycopy(content, ni + 2, newContent, ni + 1,
+                    content.length - ni - 2);
+            return new BitmapNode(dataMap ^ bit, nodeMap | bit, newContent);
+        }
+
+        /**
+         * Replaces the child node at given bit by given entry.
+         */
+        private BitmapNode nodeToData(int bit, Object key, Object value) {
+            int ni = nodeIndex(bit);
+            int di = dataIndex(bit);
+            Object[] newContent = new Object[content.length + 1];
+            System.arraycopy(content, 0, newContent, 0, di);
+            newContent[di] = key;
+            newContent[di + 1] = value;
+            System.arraycopy(content, di, newContent, di + 2, ni - di);
+            System.arraycopy(content, ni + 1, newContent, ni + 2,
+                    content.length - ni - 1);
+            return new BitmapNode(dataMap | bit, nodeMap ^ bit, newContent);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            int base = 2 * Integer.bitCount(dataMap);
+            for (int i = 0; i < base; i += 2) {
+                action.accept(content[i], content[i + 1]);
+            }
+            for (int i = base; i < content.length; ++i) {
+                ((Node) content[i]).forEach(action);
+            }
+        }
+
+        @Override
+        Object singleKey() {
+            return content[0];
+        }
+
+        @Override
+        Object singleValue() {
+            return content[1];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BitmapNode that)
+                    || size != that.size || hash != that.hash
+                    || dataMap != that.dataMap || nodeMap != that.nodeMap) {
+                return false;
+            }
+            for (int i = 0; i < content.length; ++i) {
+                if (!content[i].equals(that.content[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Node of the entries whose keys have the same hash code.
+     * The entries are stored as key-value pairs in insertion order.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int keyHash;
+
+        private final Object[] content;
+
+        CollisionNode(int keyHash, Object[] content) {
+            super(content.length / 2, computeHash(content));
+            this.keyHash = keyHash;
+            this.content = content;
+        }
+
+        private static int computeHash(Object[] content) {
+            int hash = 0;
+            for (int i = 0; i < content.length; i += 2) {
+                hash += entryHash(content[i], content[i + 1]);
+            }
+            return hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (key.equals(content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object get(Object key, int keyHash, int shift) {
+            int i = indexOf(key);
+            return i != -1 ? content[i + 1] : null;
+        }
+
+        @Override
+        Node put(Object key, int keyHash, Object value, int shift) {
+            int i = indexOf(key);
+            if (i != -1) {
+                if (value.equals(content[i + 1])) {
+                    return this;
+                }
+                Object[] newContent = content.clone();
+                newContent[i + 1] = value;
+                return new CollisionNode(keyHash, newContent);
+            }
+            Object[] newContent = Arrays.copyOf(content, content.length + 2);
+            newContent[content.length] = key;
+            newContent[content.length + 1] = value;
+            return new CollisionNode(keyHash, newContent);
+        }
+
+        @Override
+        Node remove(Object key, int keyHash, int shift) {
+            int i = indexOf(key);
+            if (i == -1) {
+                return this;
+            }
+            Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, i);
+            System.arraycopy(content, i + 2, newContent, i,
+                    content.length - i - 2);
+            return new CollisionNode(keyHash, newContent);
+        }
+
+        @Override
+        Node putAll(Node other, int shift) {
+            Node result = this;
+            CollisionNode that = (CollisionNode) other;
+            for (int i = 0; i < that.content.length; i += 2) {
+                result = result.put(that.content[i], keyHash,
+                        that.content[i + 1], shift);
+            }
+            return result;
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < content.length; i += 2) {
+                action.accept(content[i], content[i + 1]);
+            }
+        }
+
+        @Override
+        Object singleKey() {
+            return content[0];
+        }
+
+        @Override
+        Object singleValue() {
+            return content[1];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CollisionNode that)
+                    || size != that.size || hash != that.hash) {
+                return false;
+            }
+            // the entries may be in different orders
+            for (int i = 0; i < content.length; i += 2) {
+                if (!content[i + 1].equals(that.get(content[i], keyHash, 0))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -22,17 +22,23 @@
 
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
+import org.junit.Assert;
 import org.junit.Test;
 import pascal.taie.analysis.Tests;
 import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 
 public class InterCPAliasTest {
 
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/alias";
 
     void test(String inputClass) {
+        test(inputClass, "");
+    }
+
+    void test(String inputClass, String opts) {
         Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
-                "edge-refine:false;alias-aware:true;pta:cspta",
+                "edge-refine:false;alias-aware:true;pta:cspta" + opts,
                 "-a", "cspta=cs:2-obj", "-a", "cg=algorithm:cspta"
                 //, "-a", "icfg=dump:true" // <-- uncomment this code if you want
                                            // to output ICFGs for the test cases
@@ -69,6 +75,11 @@ public class InterCPAliasTest {
         test("Interprocedural2");
     }
 
+    @Test
+    public void testLinearCalls() {
+        test("LinearCalls");
+    }
+
     @Test
     public void testObjSens() {
         test("ObjSens");
@@ -83,4 +94,25 @@ public class InterCPAliasTest {
     public void testStaticFieldMultiStores() {
         test("StaticFieldMultiStores");
     }
+
+    @Test
+    public void testArrayLoopsWithPersistentFact() {
+        test("ArrayLoops", ";fact:persistent");
+    }
+
+    @Test
+    public void testObjSensWithPersistentFact() {
+        test("ObjSens", ";fact:persistent");
+    }
+
+    @Test
+    public void testArrayLoopsWithSolverMetrics() {
+        SolverMetrics.clear();
+        test("ArrayLoops", ";metrics:true");
+        Assert.assertTrue(SolverMetrics.getEntries().stream()
+                .anyMatch(e -> e.getAnalysis().equals(InterConstantPropagation.ID)
+                        && e.getMethod().contains("main")
+                        && e.getVisits() > 0 && e.getMaxFactSize() > 0));
+        SolverMetrics.clear();
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class InterCPIDETest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/alias";
+
+    void test(String inputClass) {
+        // the values loaded from the heap are NAC in linear constant
+        // propagation, thus the results are compared with the expected
+        // files of variant "ide"
+        Tests.testVariant(inputClass, CLASS_PATH, InterConstantPropagation.ID, "ide",
+                "edge-refine:false;alias-aware:false;solver:ide",
+                "-a", "cspta=cs:2-obj", "-a", "cg=algorithm:cspta");
+    }
+
+    @Test
+    public void testInterprocedural2() {
+        test("Interprocedural2");
+    }
+
+    @Test
+    public void testLinearCalls() {
+        // the return values of the calls are computed by the summary
+        // of the callee in each calling context
+        test("LinearCalls");
+    }
+
+    @Test
+    public void testParallel() {
+        for (String inputClass : List.of("Interprocedural2", "LinearCalls",
+                "Recursion", "ObjSens", "StaticField")) {
+            Assert.assertEquals("Results of " + inputClass,
+                    solve(inputClass, false), solve(inputClass, true));
+        }
+    }
+
+    /**
+     * @return the facts before and after each statement of the
+     * application methods, solved by {@link pascal.taie.analysis.dataflow.inter.IDESolver}
+     * in given mode.
+     */
+    private static List<String> solve(String inputClass, boolean parallel) {
+        Main.main(new String[]{"-pp", "-cp", CLASS_PATH, "-m", inputClass,
+                "-a", "cspta=cs:2-obj", "-a", "cg=algorithm:cspta",
+                "-a", InterConstantPropagation.ID +
+                "=edge-refine:false;alias-aware:false;solver:ide;parallel:" + parallel});
+        CallGraph<?, JMethod> cg = World.get().getResult(CallGraphBuilder.ID);
+        DataflowResult<Stmt, CPFact> result =
+                World.get().getResult(InterConstantPropagation.ID);
+        List<String> facts = new ArrayList<>();
+        cg.reachableMethods()
+                .filter(m -> m.getDeclaringClass().isApplication())
+                .sorted(Comparator.comparing(JMethod::toString))
+                .forEach(m -> m.getIR().forEach(stmt -> facts.add(m + " " +
+                        stmt.getIndex() + " " + toString(result.getInFact(stmt)) +
+                        " " + toString(result.getOutFact(stmt)))));
+        return facts;
+    }
+
+    private static String toString(CPFact fact) {
+        return fact.keySet()
+                .stream()
+                .sorted(Comparator.comparing(Var::getName))
+                .map(v -> v.getName() + "=" + fact.get(v))
+                .toList()
+                .toString();
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testAliasAware() {
+        new InterConstantPropagation(new AnalysisConfig(InterConstantPropagation.ID,
+                "solver", "ide", "alias-aware", true));
+    }
+}
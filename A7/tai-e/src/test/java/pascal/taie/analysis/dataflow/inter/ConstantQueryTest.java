@@ -0,0 +1,102 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+public class ConstantQueryTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/alias";
+
+    /**
+     * Checks that the answers of the queries of all variables
+     * at all statements equal to the results of the whole-program
+     * inter-procedural constant propagation.
+     */
+    void test(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:true;pta:cspta",
+                "-a", "cspta=cs:2-obj", "-a", "cg=algorithm:cspta");
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        PointerAnalysisResult pta = World.get().getResult("cspta");
+        DataflowResult<Stmt, CPFact> result =
+                World.get().getResult(InterConstantPropagation.ID);
+        ConstantQuery query = new ConstantQuery(icfg, pta);
+        for (Stmt stmt : icfg) {
+            CPFact out = result.getOutFact(stmt);
+            for (Var var : icfg.getContainingMethodOf(stmt).getIR().getVars()) {
+                Assert.assertEquals(stmt + ": " + var,
+                        out.get(var), query.getValue(stmt, var));
+            }
+        }
+    }
+
+    @Test
+    public void testArrayLoops() {
+        test("ArrayLoops");
+    }
+
+    @Test
+    public void testInterprocedural2() {
+        test("Interprocedural2");
+    }
+
+    @Test
+    public void testObjSens() {
+        test("ObjSens");
+    }
+
+    @Test
+    public void testStaticFieldMultiStores() {
+        test("StaticFieldMultiStores");
+    }
+
+    @Test
+    public void testMemoization() {
+        test("ArrayLoops");
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        PointerAnalysisResult pta = World.get().getResult("cspta");
+        ConstantQuery query = new ConstantQuery(icfg, pta);
+        JMethod main = World.get().getMainMethod();
+        Stmt exit = icfg.getExitOf(main);
+        for (Var var : main.getIR().getVars()) {
+            query.getValue(exit, var);
+        }
+        int size = query.getNumberOfMemoizedValues();
+        Assert.assertTrue(size > 0);
+        for (Var var : main.getIR().getVars()) {
+            query.getValue(exit, var);
+        }
+        Assert.assertEquals(size, query.getNumberOfMemoizedValues());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+
+public class LinearFunctionTest {
+
+    private static final Value UNDEF = Value.getUndef();
+
+    private static final Value NAC = Value.getNAC();
+
+    private static Value c(int value) {
+        return Value.makeConstant(value);
+    }
+
+    @Test
+    public void testComputeTarget() {
+        LinearFunction f = LinearFunction.linear(2, 3);
+        Assert.assertEquals(c(13), f.computeTarget(c(5)));
+        Assert.assertEquals(UNDEF, f.computeTarget(UNDEF));
+        Assert.assertEquals(NAC, f.computeTarget(NAC));
+        LinearFunction constant = LinearFunction.constant(c(7));
+        Assert.assertEquals(c(7), constant.computeTarget(UNDEF));
+        Assert.assertEquals(c(7), constant.computeTarget(NAC));
+        Assert.assertEquals(UNDEF, LinearFunction.top().computeTarget(c(1)));
+        Assert.assertEquals(NAC, LinearFunction.bottom().computeTarget(c(1)));
+    }
+
+    @Test
+    public void testAndThen() {
+        // x -> 2x+3 -> 3(2x+3)-1
+        EdgeFunction<Value> f = LinearFunction.linear(2, 3)
+                .andThen(LinearFunction.linear(3, -1));
+        Assert.assertEquals(LinearFunction.linear(6, 8), f);
+        Assert.assertEquals(c(Integer.MAX_VALUE * 6 + 8),
+                f.computeTarget(c(Integer.MAX_VALUE)));
+        Assert.assertEquals(LinearFunction.constant(c(4)),
+                LinearFunction.bottom().andThen(LinearFunction.constant(c(4))));
+        Assert.assertEquals(LinearFunction.top(),
+                LinearFunction.bottom().andThen(LinearFunction.top()));
+        Assert.assertEquals(LinearFunction.bottom(),
+                LinearFunction.top().andThen(LinearFunction.bottom()));
+        Assert.assertEquals(LinearFunction.top(),
+                LinearFunction.top().andThen(LinearFunction.linear(2, 1)));
+        Assert.assertEquals(LinearFunction.constant(c(1)),
+                LinearFunction.constant(c(0)).andThen(LinearFunction.linear(2, 1)));
+    }
+
+    @Test
+    public void testMeetWith() {
+        LinearFunction f = LinearFunction.linear(1, 1);
+        Assert.assertEquals(f, LinearFunction.top().meetWith(f));
+        Assert.assertEquals(f, f.meetWith(LinearFunction.top()));
+        Assert.assertEquals(f, f.meetWith(LinearFunction.linear(1, 1)));
+        Assert.assertEquals(LinearFunction.bottom(),
+                f.meetWith(LinearFunction.linear(1, 2)));
+        Assert.assertEquals(LinearFunction.bottom(),
+                LinearFunction.bottom().meetWith(LinearFunction.top()));
+        Assert.assertNotEquals(LinearFunction.top(), LinearFunction.bottom());
+        Assert.assertNotEquals(LinearFunction.top(), LinearFunction.constant(c(0)));
+    }
+}
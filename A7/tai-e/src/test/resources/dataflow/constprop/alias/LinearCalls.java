@@ -0,0 +1,10 @@
+class LinearCalls {
+    public static void main(String[] args) {
+        int a = inc(10);
+        int b = inc(20);
+    }
+
+    static int inc(int x) {
+        return x + 1;
+    }
+}
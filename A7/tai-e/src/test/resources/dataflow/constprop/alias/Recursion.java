@@ -0,0 +1,22 @@
+class Recursion {
+    public static void main(String[] args) {
+        int a = inc(10);
+        int b = ping(a);
+        int c = inc(b);
+    }
+
+    static int inc(int x) {
+        return x + 1;
+    }
+
+    static int ping(int n) {
+        if (n > 0) {
+            return pong(n - 1);
+        }
+        return inc(n);
+    }
+
+    static int pong(int n) {
+        return ping(n);
+    }
+}